@@ -10,6 +10,7 @@ plugins {
     alias(libs.plugins.changelog) // Gradle Changelog Plugin
     alias(libs.plugins.qodana) // Gradle Qodana Plugin
     alias(libs.plugins.kover) // Gradle Kover Plugin
+    alias(libs.plugins.jmh) // JMH Gradle Plugin
 }
 
 group = providers.gradleProperty("pluginGroup").get()
@@ -59,6 +60,7 @@ dependencies {
         bundledModules(providers.gradleProperty("platformBundledModules").map { it.split(',') })
 
         testFramework(TestFrameworkType.Platform)
+        testFramework(TestFrameworkType.Plugin.Java)
     }
 
     compileOnly("org.projectlombok:lombok:1.18.38")
@@ -144,6 +146,25 @@ kover {
     }
 }
 
+// Configure JMH Gradle Plugin - read more: https://github.com/melix/jmh-gradle-plugin
+// Benchmarks live in src/jmh/java and run with ./gradlew jmh, results are written to build/results/jmh
+jmh {
+    jmhVersion = libs.versions.jmh
+    benchmarkMode = listOf("thrpt")
+    timeUnit = "s"
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    // The gc profiler reports allocation rate (gc.alloc.rate) and bytes allocated per operation (gc.alloc.rate.norm)
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
+
+// IntelliJ Platform dependencies (Velocity, PSI utilities) are compileOnly, benchmarks need them on the classpath as well
+configurations.named("jmhImplementation") {
+    extendsFrom(configurations.compileOnly.get())
+}
+
 tasks {
     wrapper {
         gradleVersion = providers.gradleProperty("gradleVersion").get()
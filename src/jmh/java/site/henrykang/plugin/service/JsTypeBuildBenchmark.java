@@ -0,0 +1,55 @@
+package site.henrykang.plugin.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * jsType 拼接：模拟 {@link JsDocTypeResolver} 自底向上组装嵌套泛型类型，不涉及 PSI
+ */
+@State(Scope.Benchmark)
+public class JsTypeBuildBenchmark {
+
+    /** 泛型嵌套深度，如 depth=3 时为 {@code Page<Map<String, List<UserDto>>>} */
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private static final String[][] FLAT_TYPES = {
+        {"java.lang.String", "String"},
+        {"java.lang.Long", "Long"},
+        {"java.lang.Boolean", "Boolean"},
+        {"java.time.LocalDateTime", "LocalDateTime"},
+        {"java.util.UUID", "UUID"},
+        {"org.springframework.web.multipart.MultipartFile", "MultipartFile"},
+        {"com.example.dto.UserDto", "UserDto"},
+    };
+
+    @Benchmark
+    public String nestedGeneric() {
+        return nested(depth);
+    }
+
+    @Benchmark
+    public void flatTypes(Blackhole bh) {
+        for (String[] type : FLAT_TYPES) {
+            bh.consume(JsDocTypeResolver.buildJsType(type[0], type[1], type[0].startsWith("com.example"), List.of()));
+        }
+    }
+
+    private static String nested(int depth) {
+        if (depth == 0) {
+            return JsDocTypeResolver.buildJsType("com.example.dto.UserDto", "UserDto", true, List.of());
+        }
+        String inner = nested(depth - 1);
+        return switch (depth % 3) {
+            case 1 -> JsDocTypeResolver.buildJsType("java.util.Collection", "List", false, List.of(inner));
+            case 2 -> JsDocTypeResolver.buildJsType("java.util.Map", "Map", false, List.of("string", inner));
+            default -> JsDocTypeResolver.buildJsType("com.example.dto.Page", "Page", true, List.of(inner));
+        };
+    }
+
+}
@@ -0,0 +1,80 @@
+package site.henrykang.plugin.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 忽略参数类型匹配：每次操作将一批参数类型与编译后的规则表 {@link TypeRules} 匹配
+ */
+@State(Scope.Benchmark)
+public class IgnoreTypeMatchBenchmark {
+
+    /** 参数类型个数 */
+    @Param({"1000", "5000"})
+    public int typeCnt;
+
+    /** 忽略列表中额外的类型个数 */
+    @Param({"2", "50"})
+    public int patternCnt;
+
+    private String[] types;
+    private String patterns;
+    private TypeRules rules;
+
+    @Setup
+    public void setup() {
+        // 模拟项目中常见的参数类型分布，少部分属于忽略列表
+        String[] common = {
+            "java.lang.String", "java.lang.Long", "java.lang.Integer", "java.util.List",
+            "javax.servlet.http.HttpServletRequest", "javax.servlet.http.HttpServletResponse",
+            "org.springframework.validation.BindingResult", "org.springframework.web.multipart.MultipartFile",
+        };
+        types = new String[typeCnt];
+        for (int i = 0; i < typeCnt; i++) {
+            types[i] = i % 4 == 0
+                ? common[i % common.length]
+                : "com.example.module" + (i % 40) + ".dto.Type" + i + "Dto";
+        }
+
+        List<String> patternList = new ArrayList<>(List.of("javax.servlet.http.*", "org.springframework.validation.BindingResult"));
+        for (int i = 0; i < patternCnt - 2; i++) {
+            patternList.add(i % 2 == 0 ? "com.example.internal" + i + ".*" : "com.example.security.Principal" + i);
+        }
+        // 与设置弹窗中的格式一致，逗号加换行分隔
+        patterns = String.join(",\n", patternList) + ",\n";
+        rules = TypeRules.compile("java.math.BigDecimal=string\norg.springframework.data.domain.Pageable+=ignore", patterns, "com.example");
+    }
+
+    @Benchmark
+    public int matchAll() {
+        int matched = 0;
+        for (String type : types) {
+            if (rules.isIgnored(type)) matched++;
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int classifyPojo() {
+        int matched = 0;
+        for (String type : types) {
+            if (rules.isPojo(type)) matched++;
+        }
+        return matched;
+    }
+
+    /**
+     * 配置变化时的编译耗时
+     */
+    @Benchmark
+    public TypeRules compile() {
+        return TypeRules.compile(null, patterns, "com.example");
+    }
+
+}
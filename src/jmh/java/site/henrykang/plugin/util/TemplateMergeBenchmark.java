@@ -0,0 +1,193 @@
+package site.henrykang.plugin.util;
+
+import org.apache.velocity.VelocityContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 模板填充：使用插件自带的模板，对合成的大型 Controller 模型进行填充、格式化，
+ * 对比 velocity 填充与 {@link JsEmitter} 直接输出，以及 velocity 以 {@link TemplateView} 取值与以实体反射取值
+ */
+@State(Scope.Benchmark)
+public class TemplateMergeBenchmark {
+
+    /** Controller 方法个数 */
+    @Param({"20", "200"})
+    public int methodCnt;
+
+    /** pojo 个数 */
+    @Param({"10", "100"})
+    public int pojoCnt;
+
+    private VelocityContext ctx;
+    private String renderedText;
+
+    @Setup
+    public void setup() {
+        TemplateUtil.loadTemplate(readTemplate(Constant.FILE_TEMPLATE_NAME), readTemplate(Constant.METHOD_TEMPLATE_NAME), readTemplate(Constant.DOC_TEMPLATE_NAME));
+
+        List<MethodInfo> methodList = new ArrayList<>(methodCnt);
+        for (int i = 0; i < methodCnt; i++) {
+            methodList.add(createMethod(i));
+        }
+        List<PojoInfo> pojoList = new ArrayList<>(pojoCnt);
+        for (int i = 0; i < pojoCnt; i++) {
+            pojoList.add(createPojo(i));
+        }
+        ctx = new VelocityContext();
+        ctx.put("clazz", new ClassInfo().setName("UserController").setComment("用户管理").setReqPrefix("api/user").setMethodList(methodList));
+        ctx.put("pojoList", pojoList);
+        renderedText = this.render();
+        // 两种实现格式化后的结果需要一致
+        if (!JsFormatter.format(renderedText).equals(JsFormatter.format(this.emit()))) {
+            throw new IllegalStateException("JsEmitter output differs from velocity output");
+        }
+    }
+
+    /** velocity 填充为 String */
+    @Benchmark
+    public String render() {
+        StringWriter sw = new StringWriter();
+        TemplateUtil.renderVelocity(ctx, Constant.FILE_TEMPLATE_NAME, sw);
+        return sw.toString();
+    }
+
+    /** velocity 直接以实体填充，由 uberspector 反射调用 getter */
+    @Benchmark
+    public String renderBeans() {
+        StringWriter sw = new StringWriter();
+        TemplateUtil.mergeWithoutViews(ctx, Constant.FILE_TEMPLATE_NAME, sw);
+        return sw.toString();
+    }
+
+    /** 只构建视图，render 与 renderBeans 的差值中视图构建所占的部分 */
+    @Benchmark
+    public Object buildViews() {
+        return TemplateView.of((ClassInfo) ctx.get("clazz"));
+    }
+
+    /** JsEmitter 输出为 String */
+    @Benchmark
+    public String emit() {
+        StringWriter sw = new StringWriter();
+        JsEmitter.emit(ctx, Constant.FILE_TEMPLATE_NAME, sw);
+        return sw.toString();
+    }
+
+    /** velocity 流式填充并格式化，不保留完整结果 */
+    @Benchmark
+    public void renderStreaming() throws IOException {
+        try (Writer writer = new JsFormatter(Writer.nullWriter())) {
+            TemplateUtil.renderVelocity(ctx, Constant.FILE_TEMPLATE_NAME, writer);
+        }
+    }
+
+    /** JsEmitter 流式输出并格式化，不保留完整结果 */
+    @Benchmark
+    public void emitStreaming() throws IOException {
+        try (Writer writer = new JsFormatter(Writer.nullWriter())) {
+            JsEmitter.emit(ctx, Constant.FILE_TEMPLATE_NAME, writer);
+        }
+    }
+
+    /** 轻量级格式化已填充的结果 */
+    @Benchmark
+    public String fastFormat() {
+        return JsFormatter.format(renderedText);
+    }
+
+    private static String readTemplate(String name) {
+        try (InputStream in = TemplateMergeBenchmark.class.getResourceAsStream("/fileTemplates/j2ee/" + name + ".js.ft")) {
+            return new String(Objects.requireNonNull(in, name).readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 按 get、post(json)、post(urlencoded)、post(multipart) 轮流生成方法
+     */
+    private static MethodInfo createMethod(int i) {
+        MethodInfo methodInfo = new MethodInfo();
+        methodInfo.setName("method" + i);
+        methodInfo.setComment("方法 " + i);
+        methodInfo.setUri("path/" + i);
+        methodInfo.setReturnJsType(i % 2 == 0 ? "Page<UserDto" + i + ">" : "Array<UserDto" + i + ">");
+        methodInfo.setPathParams(Collections.emptyList());
+        methodInfo.setQueryParams(Collections.emptyList());
+        methodInfo.setPartParams(Collections.emptyList());
+        methodInfo.setUrlencodedParams(Collections.emptyList());
+
+        List<ParamInfo> queryParams = List.of(createParam("id", "number", false), createParam("keyword", "string", false));
+        switch (i % 4) {
+            case 0 -> {
+                methodInfo.setMethod("get");
+                methodInfo.setQueryParams(queryParams);
+            }
+            case 1 -> {
+                methodInfo.setMethod("post");
+                methodInfo.setBodyParam(createParam("body", "UserDto" + i, true));
+            }
+            case 2 -> {
+                methodInfo.setMethod("put");
+                methodInfo.setUrlencodedParams(List.of(createParam("form", "UserDto" + i, true), createParam("remark", "string", false)));
+            }
+            default -> {
+                methodInfo.setMethod("post");
+                methodInfo.setPartParams(List.of(createParam("files", "Array<File>", false), createParam("meta", "UserDto" + i, true)));
+            }
+        }
+        List<ParamInfo> allParams = new ArrayList<>();
+        allParams.addAll(methodInfo.getQueryParams());
+        allParams.addAll(methodInfo.getUrlencodedParams());
+        allParams.addAll(methodInfo.getPartParams());
+        if (methodInfo.getBodyParam() != null) allParams.add(methodInfo.getBodyParam());
+        methodInfo.setAllParams(allParams);
+        methodInfo.setParamsCnt(allParams.size());
+        methodInfo.setAllParamsNameStr(allParams.stream().map(ParamInfo::getName).collect(Collectors.joining(", ")));
+        methodInfo.setQueryParamsNameStr(methodInfo.getQueryParams().stream().map(ParamInfo::getName).collect(Collectors.joining(", ")));
+        return methodInfo;
+    }
+
+    private static ParamInfo createParam(String name, String jsType, boolean isPojo) {
+        ParamInfo paramInfo = new ParamInfo();
+        paramInfo.setName(name);
+        paramInfo.setComment("参数 " + name);
+        paramInfo.setJsType(jsType);
+        paramInfo.setPojoSet(Set.of());
+        paramInfo.setIsArray(jsType.startsWith("Array<"));
+        paramInfo.setIsFile(jsType.equals("Array<File>"));
+        paramInfo.setIsPojo(isPojo);
+        return paramInfo;
+    }
+
+    private static PojoInfo createPojo(int i) {
+        List<PojoInfo.FieldVo> fieldList = new ArrayList<>();
+        for (int j = 0; j < 12; j++) {
+            fieldList.add(new PojoInfo.FieldVo("field" + j, "属性 " + j, j % 3 == 0 ? "string" : j % 3 == 1 ? "number" : "Array<Address>"));
+        }
+        return new PojoInfo("com.example.dto.UserDto" + i, "UserDto" + i, "实体 " + i, fieldList, i % 5 == 0 ? List.of("T") : List.of());
+    }
+
+}
@@ -7,37 +7,36 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.PlatformDataKeys;
 import com.intellij.openapi.actionSystem.Presentation;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiJavaFile;
-import com.intellij.psi.PsiManager;
-import org.apache.velocity.VelocityContext;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
 import org.jetbrains.annotations.NotNull;
-import site.henrykang.plugin.entity.ClassInfo;
 import site.henrykang.plugin.entity.Constant;
-import site.henrykang.plugin.entity.PojoInfo;
-import site.henrykang.plugin.service.JsDocTypeResolver;
+import site.henrykang.plugin.service.FileGenerator;
+import site.henrykang.plugin.service.GenMetrics;
 import site.henrykang.plugin.service.PropertiesManager;
 import site.henrykang.plugin.ui.SettingsDialog;
 import site.henrykang.plugin.util.MyPsiUtil;
 import site.henrykang.plugin.util.StringUtil;
-import site.henrykang.plugin.util.TemplateUtil;
 import site.henrykang.plugin.util.UiUtil;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * 从 Controller.java 文件生成 Axios 请求代码
@@ -50,12 +49,25 @@ public class FileGenAction extends AnAction {
     public void actionPerformed(@NotNull AnActionEvent e) {
         Project project = e.getProject();
         assert project != null;
-        PsiManager psiManager = PsiManager.getInstance(project);
         VirtualFile[] virtualFiles = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
         assert virtualFiles != null;
+        if (DumbService.isDumb(project)) {
+            UiUtil.showNotification(project, "Please wait for indexing to finish", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            return;
+        }
 
-        // 过滤出 Controller.java 文件，转换为 PsiClass 对象
-        List<PsiClass> psiClassList = getControllerClass(virtualFiles, psiManager);
+        // 通过索引查找选中文件、目录下的 Controller 类
+        List<PsiClass> psiClassList;
+        long discoveryStart = System.nanoTime();
+        try {
+            psiClassList = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> FileGenerator.findControllers(project, buildSearchScope(project, virtualFiles))),
+                "Searching controllers", true, project);
+        } catch (ProcessCanceledException ex) {
+            UiUtil.showNotification(project, "Action cancelled", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            return;
+        }
+        long discoveryNanos = System.nanoTime() - discoveryStart;
         if (psiClassList.isEmpty()) {
             UiUtil.showNotification(project, "No compliant files recognized", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
             return;
@@ -65,13 +77,21 @@ public class FileGenAction extends AnAction {
         SettingsDialog dialog = new SettingsDialog(e.getProject());
         String savePath = "";
         String pojoPackages = "";
-        Boolean isClearCache = false;
         Boolean isIgnoreDeprecated = true;
+        Boolean isIncremental = true;
+        Boolean isTypesModule = false;
+        Boolean isFastFormat = false;
+        Boolean isWriteReport = false;
+        Boolean isWatch = false;
         if (dialog.showAndGet()) {
             savePath = dialog.getSavePath();
             pojoPackages = dialog.getPojoPackages();
-            isClearCache = dialog.isClearCacheSelected();
             isIgnoreDeprecated = dialog.isIgnoreDeprecatedSelected();
+            isIncremental = dialog.isIncrementalSelected();
+            isTypesModule = dialog.isTypesModuleSelected();
+            isFastFormat = dialog.isFastFormatSelected();
+            isWriteReport = dialog.isWriteReportSelected();
+            isWatch = dialog.isWatchSelected();
 
             if (StringUtil.isBlank(savePath)) {
                 UiUtil.showNotification(project, "No save path selected", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
@@ -85,44 +105,51 @@ public class FileGenAction extends AnAction {
             PropertiesManager pm = PropertiesManager.getInstance(project);
             pm.put(Constant.CACHE_KEY_SAVE_PATH, savePath);
             pm.put(Constant.CACHE_KEY_POJO_PACKAGES, pojoPackages);
-            pm.put(Constant.CACHE_KEY_IS_CLEAR_CACHE, isClearCache.toString());
             pm.put(Constant.CACHE_KEY_IGNORE_DEPRECATED, isIgnoreDeprecated.toString());
             pm.put(Constant.CACHE_KEY_IGNORE_PARAM_TYPES, dialog.getIgnoreParamTypes());
-            if (isClearCache) {
-                JsDocTypeResolver.getInstance(project).invalidateCache();
-            }
+            pm.put(Constant.CACHE_KEY_TYPE_RULES, dialog.getTypeRules());
+            pm.put(Constant.CACHE_KEY_INCREMENTAL, isIncremental.toString());
+            pm.put(Constant.CACHE_KEY_TYPES_MODULE, isTypesModule.toString());
+            pm.put(Constant.CACHE_KEY_FAST_FORMAT, isFastFormat.toString());
+            pm.put(Constant.CACHE_KEY_SKIP_COMMENTS, dialog.isSkipCommentsSelected().toString());
+            pm.put(Constant.CACHE_KEY_WRITE_REPORT, isWriteReport.toString());
+            pm.put(Constant.CACHE_KEY_WATCH, isWatch.toString());
         } else {
             UiUtil.showNotification(project, "Action cancelled", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
             return;
         }
 
-        // 遍历每个 PsiClass
-        int errCnt = 0;
-        int allCnt = psiClassList.size();
-        for (int i = 0; i < allCnt; i++) {
-            try {
-                PsiClass psiClass = psiClassList.get(i);
-                LOG.info("[" + (i + 1) + "/" + allCnt + "] handling: " + psiClass.getName());
-                // 处理每个类，封装方法、参数信息
-                ClassInfo classInfo = ClassInfo.handlePsiClass(psiClass);
-                // 提取 JSDoc Pojo 类定义信息
-                List<PojoInfo> pojoList = PojoInfo.handlePojoInfo(psiClass.getProject(), classInfo.getPojoSet());
-                // 模板填充
-                VelocityContext ctx = new VelocityContext();
-                ctx.put("clazz", classInfo);
-                ctx.put("pojoList", pojoList);
-                String resultText = TemplateUtil.merge(ctx, Constant.FILE_TEMPLATE_NAME);
-                // 写出文件
-                String resultFileName = classInfo.getName().replace("Controller", "") + "Api.js";
-                MyPsiUtil.writeTextToFile(project, Path.of(savePath, resultFileName), resultText);
-                LOG.info("[" + (i + 1) + "/" + allCnt + "] completed: " + psiClass.getName());
-            } catch (Exception ex) {
-                errCnt++;
-                LOG.error("Error occurred: " + ex.getMessage(), ex);
+        // 在后台任务中并行处理每个 PsiClass，避免阻塞 EDT，并支持取消
+        // 保存未保存的修改，使文件修改标记与内容一致
+        FileDocumentManager.getInstance().saveAllDocuments();
+        FileGenerator generator = new FileGenerator(project, Path.of(savePath))
+            .setIncremental(isIncremental)
+            .setTypesModule(isTypesModule)
+            .setFastFormat(isFastFormat)
+            .setWriteReport(isWriteReport);
+        generator.getMetrics().record(GenMetrics.Stage.DISCOVERY, discoveryNanos);
+        String finalSavePath = savePath;
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Generating axios code", true) {
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                generator.generate(psiClassList, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                int allCnt = generator.getAllCnt();
+                String message = "Action completed, success[" + (allCnt - generator.getErrCnt()) + "/" + allCnt + "]";
+                message += ", written[" + generator.getWrittenCnt() + "], unchanged[" + (generator.getSkipCnt() + generator.getIdenticalCnt()) + "]";
+                message += ", please check: \n" + finalSavePath + "\n" + generator.getMetrics().summary();
+                UiUtil.showNotification(project, message, NotificationType.INFORMATION, TimeUnit.SECONDS.toMillis(10));
             }
-        }
 
-        UiUtil.showNotification(project, "Action completed, success[" + (allCnt - errCnt) + "/" + allCnt + "], please check: \n" + savePath, NotificationType.INFORMATION, TimeUnit.SECONDS.toMillis(3));
+            @Override
+            public void onCancel() {
+                UiUtil.showNotification(project, "Action cancelled", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            }
+        });
     }
 
     @Override
@@ -153,42 +180,20 @@ public class FileGenAction extends AnAction {
     }
 
     /**
-     * 获取 Controller.java 文件
-     */
-    private static List<PsiClass> getControllerClass(VirtualFile[] virtualFiles, PsiManager psiManager) {
-        return Arrays.stream(virtualFiles)
-            // 提取文件
-            .flatMap(file -> {
-                if (!file.isDirectory()) return Stream.of(file);
-                List<VirtualFile> flatten = new ArrayList<>();
-                flattenFiles(file, flatten);
-                return flatten.stream();
-            })
-            .filter(file -> file.getName().endsWith(".java"))
-            .distinct()
-            // 转换为 PsiClass 对象
-            .flatMap(file -> {
-                PsiFile psiFile = psiManager.findFile(file);
-                if (!(psiFile instanceof PsiJavaFile psiJavaFile)) return Stream.empty();
-                return Stream.of(psiJavaFile.getClasses());
-            })
-            // 只保留被 RequestMapping 注解修饰的类
-            .flatMap(clazz -> clazz.hasAnnotation(Constant.ANNO_REQUEST_MAPPING) ? Stream.of(clazz) : Stream.empty())
-            .collect(Collectors.toList());
-    }
-
-    /**
-     * 递归获取目录下的所有文件
+     * 由选中的文件、目录构建搜索范围
      */
-    private static void flattenFiles(VirtualFile file, List<VirtualFile> result) {
-        if (file == null) return;
-        if (!file.isDirectory()) result.add(file);
-        VirtualFile[] children = file.getChildren();
-        if (children != null) {
-            for (VirtualFile child : children) {
-                flattenFiles(child, result);
-            }
+    private static GlobalSearchScope buildSearchScope(Project project, VirtualFile[] virtualFiles) {
+        List<VirtualFile> dirs = new ArrayList<>();
+        List<VirtualFile> files = new ArrayList<>();
+        for (VirtualFile file : virtualFiles) {
+            if (file.isDirectory()) dirs.add(file);
+            else if (file.getName().endsWith(".java")) files.add(file);
+        }
+        GlobalSearchScope scope = GlobalSearchScope.filesScope(project, files);
+        if (!dirs.isEmpty()) {
+            scope = scope.union(GlobalSearchScopesCore.directoriesScope(project, true, dirs.toArray(VirtualFile.EMPTY_ARRAY)));
         }
+        return scope;
     }
 
 }
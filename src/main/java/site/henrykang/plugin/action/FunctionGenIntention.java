@@ -5,7 +5,6 @@ import com.intellij.codeInsight.intention.preview.IntentionPreviewInfo;
 import com.intellij.codeInspection.util.IntentionFamilyName;
 import com.intellij.codeInspection.util.IntentionName;
 import com.intellij.lang.java.JavaLanguage;
-import com.intellij.lang.javascript.JavaScriptFileType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Editor;
@@ -15,10 +14,8 @@ import com.intellij.openapi.util.Computable;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiFileFactory;
 import com.intellij.psi.PsiIdentifier;
 import com.intellij.psi.PsiMethod;
-import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
 import org.apache.velocity.VelocityContext;
@@ -27,9 +24,8 @@ import site.henrykang.plugin.entity.ClassInfo;
 import site.henrykang.plugin.entity.Constant;
 import site.henrykang.plugin.entity.MethodInfo;
 import site.henrykang.plugin.entity.PojoInfo;
-import site.henrykang.plugin.service.JsDocTypeResolver;
-import site.henrykang.plugin.service.PropertiesManager;
 import site.henrykang.plugin.ui.PreviewDialog;
+import site.henrykang.plugin.util.MyPsiUtil;
 import site.henrykang.plugin.util.TemplateUtil;
 
 import java.util.List;
@@ -48,11 +44,6 @@ public class FunctionGenIntention extends BaseElementAtCaretIntentionAction {
         assert psiMethod != null;
         PsiClass psiClass = PsiTreeUtil.getParentOfType(psiMethod, PsiClass.class);
         assert psiClass != null;
-        // 是否清空缓存
-        String isClearCache = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_IS_CLEAR_CACHE);
-        if (Boolean.parseBoolean(isClearCache)) {
-            JsDocTypeResolver.getInstance(project).invalidateCache();
-        }
         // 解析
         MethodInfo methodInfo = MethodInfo.handlePsiMethod(psiMethod);
         Set<String> pojoSet = methodInfo.getAllParams().stream().flatMap(param -> param.getPojoSet().stream()).collect(Collectors.toSet());
@@ -64,8 +55,7 @@ public class FunctionGenIntention extends BaseElementAtCaretIntentionAction {
         ctx.put("pojoList", pojoList);
         String resultText = TemplateUtil.merge(ctx, Constant.METHOD_TEMPLATE_NAME);
         // 代码格式化
-        PsiFile formattedPsiFile = PsiFileFactory.getInstance(project).createFileFromText("temp.js", JavaScriptFileType.INSTANCE, resultText);
-        CodeStyleManager.getInstance(project).reformat(formattedPsiFile);
+        PsiFile formattedPsiFile = MyPsiUtil.createFormattedJsFile(project, "temp.js", resultText);
 
         new PreviewDialog(project, formattedPsiFile).show();
     }
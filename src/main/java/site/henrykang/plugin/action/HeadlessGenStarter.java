@@ -0,0 +1,239 @@
+package site.henrykang.plugin.action;
+
+import com.intellij.ide.impl.OpenProjectTask;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.project.ex.ProjectManagerEx;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.service.FileGenerator;
+import site.henrykang.plugin.service.GenMetrics;
+import site.henrykang.plugin.service.PropertiesManager;
+import site.henrykang.plugin.util.MyPsiUtil;
+import site.henrykang.plugin.util.StringUtil;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命令行生成，用于 CI 中在每次后端提交后重新生成 xxxApi.js 文件，不显示任何 UI：
+ * <pre>
+ * idea axiosCodeGen --project=/path/to/project --out=/path/to/api
+ *     [--sources=src/main/java/a,src/main/java/b] [--pojo=com.xxx] [--ignore=javax.servlet.http.*]
+ *     [--typeRules="java.math.BigDecimal=string;org.springframework.data.domain.Pageable+=ignore"]
+ *     [--ignoreDeprecated=true] [--incremental=true] [--typesModule=false] [--fastFormat=false] [--skipComments=false] [--report=false] [--parallelism=8]
+ * </pre>
+ * sources 为相对于项目目录的源码目录，默认查找整个项目。typeRules 中的规则以分号分隔。未指定的配置沿用项目中保存的配置，
+ * 指定的配置只在本次运行中生效，不会保存到项目中。开关参数只接受 true、false，parallelism 只接受正整数，默认为 CPU 核数。
+ * 退出码：0-成功，1-存在生成失败的文件，2-参数错误或项目无法打开
+ */
+public class HeadlessGenStarter implements ApplicationStarter {
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_ILLEGAL = 2;
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        int exitCode;
+        try {
+            exitCode = this.run(parseArgs(args));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            exitCode = EXIT_ILLEGAL;
+        } catch (Throwable ex) {
+            ex.printStackTrace(System.err);
+            exitCode = EXIT_FAILED;
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(Map<String, String> options) {
+        String projectArg = options.get("project");
+        String outArg = options.get("out");
+        if (StringUtil.isBlank(projectArg) || StringUtil.isBlank(outArg)) {
+            throw new IllegalArgumentException("Usage: axiosCodeGen --project=<path> --out=<path> [--sources=<dirs>] [--pojo=<packages>] [--ignore=<types>]");
+        }
+        Path projectPath = Path.of(projectArg).toAbsolutePath().normalize();
+        Path savePath = Path.of(outArg).toAbsolutePath().normalize();
+
+        // 先校验开关参数、并行度，参数错误时不打开项目
+        for (String option : List.of("ignoreDeprecated", "skipComments", "incremental", "typesModule", "fastFormat", "report")) {
+            if (options.containsKey(option)) parseBool(option, options.get(option));
+        }
+        int parallelism = options.containsKey("parallelism")
+            ? parsePositiveInt("parallelism", options.get("parallelism"))
+            : Runtime.getRuntime().availableProcessors();
+
+        // 打开项目并等待索引完成
+        long start = System.currentTimeMillis();
+        Project project = ProjectManagerEx.getInstanceEx().openProject(projectPath, OpenProjectTask.build());
+        if (project == null) {
+            throw new IllegalArgumentException("Cannot open project: " + projectPath);
+        }
+        // 命令行参数只在本次运行中覆盖项目中保存的配置，结束后先恢复再关闭项目，保存的仍是原有配置
+        Map<String, String> savedValues = new HashMap<>();
+        try {
+            return this.generate(project, projectPath, savePath, options, parallelism, savedValues, start);
+        } finally {
+            PropertiesManager pm = PropertiesManager.getInstance(project);
+            savedValues.forEach(pm::put);
+            ApplicationManager.getApplication().invokeAndWait(() -> ProjectManager.getInstance().closeAndDispose(project));
+        }
+    }
+
+    private int generate(Project project, Path projectPath, Path savePath, Map<String, String> options, int parallelism,
+                         Map<String, String> savedValues, long start) {
+        long openedAt = System.currentTimeMillis();
+        DumbService.getInstance(project).waitForSmartMode();
+        long indexedAt = System.currentTimeMillis();
+
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        putIfPresent(pm, options, "pojo", Constant.CACHE_KEY_POJO_PACKAGES, savedValues);
+        putIfPresent(pm, options, "ignore", Constant.CACHE_KEY_IGNORE_PARAM_TYPES, savedValues);
+        options.computeIfPresent("typeRules", (k, v) -> v.replace(';', '\n'));
+        putIfPresent(pm, options, "typeRules", Constant.CACHE_KEY_TYPE_RULES, savedValues);
+        putIfPresent(pm, options, "ignoreDeprecated", Constant.CACHE_KEY_IGNORE_DEPRECATED, savedValues);
+        putIfPresent(pm, options, "skipComments", Constant.CACHE_KEY_SKIP_COMMENTS, savedValues);
+
+        // 查找 Controller
+        GlobalSearchScope scope = buildSearchScope(project, projectPath, options.get("sources"));
+        List<PsiClass> psiClassList = ReadAction.nonBlocking(() -> FileGenerator.findControllers(project, scope))
+            .inSmartMode(project)
+            .executeSynchronously();
+        if (psiClassList.isEmpty()) {
+            System.out.println("No controller found");
+            return EXIT_OK;
+        }
+        if (StringUtil.isBlank(pm.get(Constant.CACHE_KEY_POJO_PACKAGES))) {
+            String pojoPackages = ReadAction.compute(() -> StringUtil.extractDomainPart(MyPsiUtil.getPackageName(psiClassList.get(0))));
+            savedValues.putIfAbsent(Constant.CACHE_KEY_POJO_PACKAGES, pm.get(Constant.CACHE_KEY_POJO_PACKAGES));
+            pm.put(Constant.CACHE_KEY_POJO_PACKAGES, pojoPackages);
+            System.out.println("Default POJO packages is set to " + pojoPackages);
+        }
+        long discoveredAt = System.currentTimeMillis();
+
+        // 生成，未指定的开关沿用项目中保存的配置
+        FileGenerator generator = new FileGenerator(project, savePath, parallelism)
+            .setIncremental(getBool(pm, options, "incremental", Constant.CACHE_KEY_INCREMENTAL, true))
+            .setTypesModule(getBool(pm, options, "typesModule", Constant.CACHE_KEY_TYPES_MODULE, false))
+            .setFastFormat(getBool(pm, options, "fastFormat", Constant.CACHE_KEY_FAST_FORMAT, false))
+            .setWriteReport(getBool(pm, options, "report", Constant.CACHE_KEY_WRITE_REPORT, false));
+        generator.getMetrics().record(GenMetrics.Stage.DISCOVERY, TimeUnit.MILLISECONDS.toNanos(discoveredAt - indexedAt));
+        ProgressIndicator indicator = new EmptyProgressIndicator();
+        ProgressManager.getInstance().runProcess(() -> generator.generate(psiClassList, indicator), indicator);
+        long generatedAt = System.currentTimeMillis();
+
+        // 统计信息
+        System.out.printf("""
+                AxiosCodeGen finished: %s
+                  controllers: %d, written: %d, unchanged: %d, failed: %d
+                  open project: %d ms, indexing: %d ms, discovery: %d ms, generation: %d ms, total: %d ms
+                %s
+                """,
+            savePath,
+            generator.getAllCnt(), generator.getWrittenCnt(), generator.getSkipCnt() + generator.getIdenticalCnt(), generator.getErrCnt(),
+            openedAt - start, indexedAt - openedAt, discoveredAt - indexedAt, generatedAt - discoveredAt, generatedAt - start,
+            generator.getMetrics().summary().indent(2).stripTrailing());
+        return generator.getErrCnt() > 0 ? EXIT_FAILED : EXIT_OK;
+    }
+
+    /**
+     * 解析 --key=value 形式的参数，第一个参数为命令名
+     */
+    private static Map<String, String> parseArgs(List<String> args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args.subList(Math.min(1, args.size()), args.size())) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            int index = arg.indexOf('=');
+            options.put(arg.substring(2, index), arg.substring(index + 1));
+        }
+        return options;
+    }
+
+    /**
+     * 使用命令行参数覆盖配置，并记录被覆盖前的值
+     */
+    private static void putIfPresent(PropertiesManager pm, Map<String, String> options, String option, String key, Map<String, String> savedValues) {
+        if (!options.containsKey(option)) return;
+        savedValues.putIfAbsent(key, pm.get(key));
+        pm.put(key, options.get(option));
+    }
+
+    /**
+     * 开关参数优先取命令行参数，其次取项目中保存的配置，都未指定时使用默认值
+     */
+    private static boolean getBool(PropertiesManager pm, Map<String, String> options, String option, String key, boolean defaultValue) {
+        if (options.containsKey(option)) return parseBool(option, options.get(option));
+        String saved = pm.get(key);
+        return saved == null ? defaultValue : Boolean.parseBoolean(saved);
+    }
+
+    /**
+     * 只接受 true、false，其他值视为参数错误，避免拼写错误被静默当作 false
+     */
+    private static boolean parseBool(String option, String value) {
+        if ("true".equalsIgnoreCase(value)) return true;
+        if ("false".equalsIgnoreCase(value)) return false;
+        throw new IllegalArgumentException("Invalid value for --" + option + ": " + value + ", expected true or false");
+    }
+
+    /**
+     * 只接受正整数，其他值视为参数错误
+     */
+    private static int parsePositiveInt(String option, String value) {
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result > 0) return result;
+        } catch (NumberFormatException ignored) {
+            // 按参数错误处理
+        }
+        throw new IllegalArgumentException("Invalid value for --" + option + ": " + value + ", expected a positive integer");
+    }
+
+    /**
+     * 由源码目录构建搜索范围，未指定时查找整个项目
+     */
+    private static GlobalSearchScope buildSearchScope(Project project, Path projectPath, String sources) {
+        if (StringUtil.isBlank(sources)) return GlobalSearchScope.projectScope(project);
+        List<VirtualFile> dirs = new ArrayList<>();
+        for (String source : sources.split(",")) {
+            if (StringUtil.isBlank(source)) continue;
+            Path dir = projectPath.resolve(source.trim()).normalize();
+            VirtualFile virtualFile = Files.isDirectory(dir) ? LocalFileSystem.getInstance().refreshAndFindFileByNioFile(dir) : null;
+            if (virtualFile == null) throw new IllegalArgumentException("Source directory not found: " + dir);
+            dirs.add(virtualFile);
+        }
+        return GlobalSearchScopesCore.directoriesScope(project, true, dirs.toArray(VirtualFile.EMPTY_ARRAY));
+    }
+
+}
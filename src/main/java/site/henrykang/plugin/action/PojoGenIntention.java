@@ -5,7 +5,6 @@ import com.intellij.codeInsight.intention.preview.IntentionPreviewInfo;
 import com.intellij.codeInspection.util.IntentionFamilyName;
 import com.intellij.codeInspection.util.IntentionName;
 import com.intellij.lang.java.JavaLanguage;
-import com.intellij.lang.javascript.JavaScriptFileType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Editor;
@@ -13,16 +12,14 @@ import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
 import com.intellij.psi.*;
-import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
 import org.apache.velocity.VelocityContext;
 import org.jetbrains.annotations.NotNull;
 import site.henrykang.plugin.entity.Constant;
 import site.henrykang.plugin.entity.PojoInfo;
-import site.henrykang.plugin.service.JsDocTypeResolver;
-import site.henrykang.plugin.service.PropertiesManager;
 import site.henrykang.plugin.ui.PreviewDialog;
+import site.henrykang.plugin.util.MyPsiUtil;
 import site.henrykang.plugin.util.TemplateUtil;
 
 import java.util.List;
@@ -39,11 +36,6 @@ public class PojoGenIntention extends BaseElementAtCaretIntentionAction {
     public void invoke(@NotNull Project project, Editor editor, @NotNull PsiElement psiElement) throws IncorrectOperationException {
         PsiClass psiClass = PsiTreeUtil.getParentOfType(psiElement, PsiClass.class);
         assert psiClass != null;
-        // 是否清空缓存
-        String isClearCache = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_IS_CLEAR_CACHE);
-        if (Boolean.parseBoolean(isClearCache)) {
-            JsDocTypeResolver.getInstance(project).invalidateCache();
-        }
         String qualifiedName = Optional.ofNullable(psiClass.getQualifiedName()).orElse("");
         // 解析 pojo、模板填充
         List<PojoInfo> pojoList = PojoInfo.handlePojoInfo(psiClass.getProject(), Set.of(qualifiedName));
@@ -51,8 +43,7 @@ public class PojoGenIntention extends BaseElementAtCaretIntentionAction {
         ctx.put("pojoList", pojoList);
         String resultText = TemplateUtil.merge(ctx, Constant.DOC_TEMPLATE_NAME);
         // 代码格式化
-        PsiFile formattedPsiFile = PsiFileFactory.getInstance(project).createFileFromText("temp.js", JavaScriptFileType.INSTANCE, resultText);
-        CodeStyleManager.getInstance(project).reformat(formattedPsiFile);
+        PsiFile formattedPsiFile = MyPsiUtil.createFormattedJsFile(project, "temp.js", resultText);
 
         new PreviewDialog(project, formattedPsiFile).show();
     }
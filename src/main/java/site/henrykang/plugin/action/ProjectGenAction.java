@@ -0,0 +1,219 @@
+package site.henrykang.plugin.action;
+
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.service.FileGenerator;
+import site.henrykang.plugin.service.ModelStore;
+import site.henrykang.plugin.service.PropertiesManager;
+import site.henrykang.plugin.ui.SettingsDialog;
+import site.henrykang.plugin.util.MyPsiUtil;
+import site.henrykang.plugin.util.StringUtil;
+import site.henrykang.plugin.util.UiUtil;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 为整个项目生成 Axios 请求代码：
+ * <pre>
+ * 1. 遍历项目中的模块，在每个模块的源码(不含测试)中查找 Controller
+ * 2. 按模块输出目录配置确定每个模块的输出目录，未配置的模块输出到 保存路径/模块名，两者都没有时跳过
+ * 3. 多个模块并发生成，所有模块的 Controller 提交到同一个大小为 CPU 核数的线程池，大模块和多个小模块都能用满所有核；
+ *    类型解析、pojo 缓存为项目级服务，在模块间共享
+ * </pre>
+ */
+public class ProjectGenAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        assert project != null;
+        if (DumbService.isDumb(project)) {
+            UiUtil.showNotification(project, "Please wait for indexing to finish", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            return;
+        }
+
+        // 配置弹窗
+        SettingsDialog dialog = new SettingsDialog(project, true);
+        if (!dialog.showAndGet()) {
+            UiUtil.showNotification(project, "Action cancelled", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            return;
+        }
+        String savePath = dialog.getSavePath();
+        String moduleSavePaths = dialog.getModuleSavePaths();
+        if (StringUtil.isBlank(savePath) && StringUtil.isBlank(moduleSavePaths)) {
+            UiUtil.showNotification(project, "No save path selected", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            return;
+        }
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        pm.put(Constant.CACHE_KEY_SAVE_PATH, savePath);
+        pm.put(Constant.CACHE_KEY_MODULE_SAVE_PATHS, moduleSavePaths);
+        pm.put(Constant.CACHE_KEY_POJO_PACKAGES, dialog.getPojoPackages());
+        pm.put(Constant.CACHE_KEY_IGNORE_DEPRECATED, dialog.isIgnoreDeprecatedSelected().toString());
+        pm.put(Constant.CACHE_KEY_IGNORE_PARAM_TYPES, dialog.getIgnoreParamTypes());
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, dialog.getTypeRules());
+        pm.put(Constant.CACHE_KEY_INCREMENTAL, dialog.isIncrementalSelected().toString());
+        pm.put(Constant.CACHE_KEY_TYPES_MODULE, dialog.isTypesModuleSelected().toString());
+        pm.put(Constant.CACHE_KEY_FAST_FORMAT, dialog.isFastFormatSelected().toString());
+        pm.put(Constant.CACHE_KEY_SKIP_COMMENTS, dialog.isSkipCommentsSelected().toString());
+        pm.put(Constant.CACHE_KEY_WRITE_REPORT, dialog.isWriteReportSelected().toString());
+        pm.put(Constant.CACHE_KEY_WATCH, dialog.isWatchSelected().toString());
+
+        FileDocumentManager.getInstance().saveAllDocuments();
+        Map<String, Path> modulePathMap = parseModuleSavePaths(project, moduleSavePaths);
+        List<FileGenerator> generatorList = new ArrayList<>();
+        AtomicInteger moduleCnt = new AtomicInteger();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Generating axios code for project", true) {
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Searching controllers");
+                Map<String, List<PsiClass>> moduleMap = ReadAction.nonBlocking(() -> findControllersByModule(project))
+                    .inSmartMode(project)
+                    .wrapProgress(indicator)
+                    .executeSynchronously();
+
+                // 确定输出目录
+                Map<Path, List<PsiClass>> targetMap = new LinkedHashMap<>();
+                moduleMap.forEach((moduleName, psiClassList) -> {
+                    Path target = modulePathMap.get(moduleName);
+                    if (target == null && StringUtil.isNotBlank(savePath)) target = Path.of(savePath).resolve(moduleName);
+                    if (target != null) targetMap.computeIfAbsent(target, k -> new ArrayList<>()).addAll(psiClassList);
+                });
+                if (targetMap.isEmpty()) return;
+                if (StringUtil.isBlank(pm.get(Constant.CACHE_KEY_POJO_PACKAGES))) {
+                    PsiClass first = targetMap.values().iterator().next().get(0);
+                    pm.put(Constant.CACHE_KEY_POJO_PACKAGES, ReadAction.compute(() -> StringUtil.extractDomainPart(MyPsiUtil.getPackageName(first))));
+                }
+
+                // 模块线程只负责提交 Controller、等待结果和写出，Controller 在共享的线程池中处理
+                int cores = Runtime.getRuntime().availableProcessors();
+                int moduleParallelism = Math.min(cores, targetMap.size());
+                AtomicInteger doneCnt = new AtomicInteger();
+                indicator.setIndeterminate(false);
+                indicator.setText("Generating " + targetMap.size() + " module(s)");
+                ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(Constant.PLUGIN_NAME + ".modules", moduleParallelism);
+                ExecutorService classExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(Constant.PLUGIN_NAME, cores);
+                try {
+                    List<Future<?>> futures = new ArrayList<>();
+                    targetMap.forEach((target, psiClassList) -> {
+                        FileGenerator generator = new FileGenerator(project, target)
+                            .setExecutor(classExecutor)
+                            .setSaveModelStore(false)
+                            .setIncremental(Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_INCREMENTAL)))
+                            .setTypesModule(Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_TYPES_MODULE)))
+                            .setFastFormat(Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_FAST_FORMAT)))
+                            .setWriteReport(Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_WRITE_REPORT)));
+                        generatorList.add(generator);
+                        // 每个模块使用独立的进度，取消时随总进度一起取消
+                        ProgressIndicator moduleIndicator = new SensitiveProgressWrapper(indicator);
+                        futures.add(executor.submit(() -> ProgressManager.getInstance().executeProcessUnderProgress(() -> {
+                            generator.generate(psiClassList, moduleIndicator);
+                            indicator.setText2(target.getFileName().toString());
+                            indicator.setFraction((double) doneCnt.incrementAndGet() / targetMap.size());
+                        }, moduleIndicator)));
+                    });
+                    moduleCnt.set(targetMap.size());
+                    for (Future<?> future : futures) {
+                        FileGenerator.waitFor(future, indicator);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                    classExecutor.shutdownNow();
+                    // 所有模块结束后写出一次
+                    ModelStore.getInstance(project).save();
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (generatorList.isEmpty()) {
+                    UiUtil.showNotification(project, "No compliant files recognized", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+                    return;
+                }
+                int allCnt = generatorList.stream().mapToInt(FileGenerator::getAllCnt).sum();
+                int errCnt = generatorList.stream().mapToInt(FileGenerator::getErrCnt).sum();
+                int writtenCnt = generatorList.stream().mapToInt(FileGenerator::getWrittenCnt).sum();
+                int unchangedCnt = generatorList.stream().mapToInt(generator -> generator.getSkipCnt() + generator.getIdenticalCnt()).sum();
+                String message = "Action completed, modules[" + moduleCnt.get() + "], success[" + (allCnt - errCnt) + "/" + allCnt + "]";
+                message += ", written[" + writtenCnt + "], unchanged[" + unchangedCnt + "]";
+                UiUtil.showNotification(project, message, NotificationType.INFORMATION, TimeUnit.SECONDS.toMillis(5));
+            }
+
+            @Override
+            public void onCancel() {
+                UiUtil.showNotification(project, "Action cancelled", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(3));
+            }
+        });
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getProject() != null && !DumbService.isDumb(e.getProject()));
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    /**
+     * 按模块查找 Controller，只查找模块自身的源码，不含测试和依赖，需要在读操作中调用
+     *
+     * @return 模块名 -> Controller 列表，按模块名排序，不包含没有 Controller 的模块
+     */
+    private static Map<String, List<PsiClass>> findControllersByModule(Project project) {
+        Map<String, List<PsiClass>> result = new LinkedHashMap<>();
+        Module[] modules = ModuleManager.getInstance(project).getModules();
+        List<Module> moduleList = new ArrayList<>(List.of(modules));
+        moduleList.sort(Comparator.comparing(Module::getName));
+        for (Module module : moduleList) {
+            List<PsiClass> psiClassList = FileGenerator.findControllers(project, module.getModuleScope(false));
+            if (!psiClassList.isEmpty()) result.put(module.getName(), psiClassList);
+        }
+        return result;
+    }
+
+    /**
+     * 解析模块输出目录配置，每行一个 module=path，相对路径相对于项目目录
+     */
+    private static Map<String, Path> parseModuleSavePaths(Project project, String text) {
+        Map<String, Path> result = new LinkedHashMap<>();
+        if (StringUtil.isBlank(text)) return result;
+        Path basePath = project.getBasePath() == null ? Path.of("") : Path.of(project.getBasePath());
+        for (String line : text.split("\n")) {
+            int index = line.indexOf('=');
+            if (index <= 0) continue;
+            String moduleName = line.substring(0, index).trim();
+            String path = line.substring(index + 1).trim();
+            if (moduleName.isEmpty() || path.isEmpty()) continue;
+            result.put(moduleName, basePath.resolve(path).toAbsolutePath().normalize());
+        }
+        return result;
+    }
+
+}
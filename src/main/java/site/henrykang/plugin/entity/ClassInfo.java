@@ -1,8 +1,8 @@
 package site.henrykang.plugin.entity;
 
+import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
-import com.intellij.psi.util.PsiTreeUtil;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
@@ -10,11 +10,12 @@ import site.henrykang.plugin.service.PropertiesManager;
 import site.henrykang.plugin.util.MyPsiUtil;
 import site.henrykang.plugin.util.StringUtil;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Data
 @Accessors(chain = true)
@@ -35,33 +36,44 @@ public class ClassInfo {
     public static ClassInfo handlePsiClass(@NotNull PsiClass psiClass) {
         ClassInfo classInfo = new ClassInfo();
         classInfo.name = psiClass.getName();
-        classInfo.comment = MyPsiUtil.getSimpleComment(psiClass.getAnnotation(Constant.ANNO_SWAGGER_TAG), List.of("name", "description"), psiClass.getDocComment());
+        // 跳过注释时只读取 stub 中的信息，不加载 Controller 文件的 AST
+        boolean skipComments = MyPsiUtil.isSkipComments(psiClass.getProject());
+        Map<String, PsiAnnotation> classAnnoMap = MyPsiUtil.collectAnnotations(psiClass, Constant.CLASS_ANNO_MAP);
+        classInfo.comment = MyPsiUtil.getSimpleComment(classAnnoMap.get(Constant.ANNO_SWAGGER_TAG), List.of("name", "description"), MyPsiUtil.getDocComment(psiClass, skipComments));
         // 提取请求路径
-        String prefix = MyPsiUtil.getAnnotationValueLiteralStr(psiClass.getAnnotation(Constant.ANNO_REQUEST_MAPPING), "value");
+        String prefix = MyPsiUtil.getAnnotationValueLiteralStr(classAnnoMap.get(Constant.ANNO_REQUEST_MAPPING), "value");
         classInfo.reqPrefix = StringUtil.trimSlashes(prefix);
 
         // 是否忽略 @Deprecated 的配置
         boolean isIgnoreDeprecated = Boolean.parseBoolean(PropertiesManager.getInstance(psiClass.getProject()).get(Constant.CACHE_KEY_IGNORE_DEPRECATED));
 
-        // 提取方法
-        classInfo.methodList = PsiTreeUtil.getChildrenOfTypeAsList(psiClass, PsiMethod.class)
-            .stream()
+        // 一次遍历提取方法：每个方法的注解只遍历一次，筛选和提取共用，同时收集参数、返回值涉及的 pojo 全类名
+        List<MethodInfo> methodList = new ArrayList<>();
+        Set<String> pojoSet = new HashSet<>();
+        // getMethods 从 stub 中读取，遍历 AST 子节点会加载整个文件
+        for (PsiMethod psiMethod : psiClass.getMethods()) {
+            Map<String, PsiAnnotation> annoMap = MyPsiUtil.collectAnnotations(psiMethod, Constant.METHOD_ANNO_MAP);
             // 只保留被 RequestMapping 等注解修饰的方法
-            .filter(psiMethod -> Arrays.stream(psiMethod.getAnnotations()).anyMatch(anno -> Constant.MAPPING_ANNO_SET.contains(anno.getQualifiedName())))
+            if (!hasMappingAnnotation(annoMap)) continue;
             // 如果需要忽略 @Deprecated 修饰的方法，则过滤掉
-            .filter(psiMethod -> !isIgnoreDeprecated || psiMethod.getAnnotation("java.lang.Deprecated") == null)
+            if (isIgnoreDeprecated && annoMap.containsKey(Constant.ANNO_DEPRECATED)) continue;
             // 处理每个方法
-            .map(MethodInfo::handlePsiMethod)
-            .toList();
-        // 提取所有参数涉及的 pojo 全类名
-        classInfo.pojoSet = classInfo.methodList.stream()
-            .flatMap(methodInfo -> methodInfo.getAllParams().stream())
-            .flatMap(paramInfo -> paramInfo.getPojoSet().stream())
-            .collect(Collectors.toSet());
-        // 收集返回值涉及的 POJO
-        classInfo.methodList.forEach(methodInfo -> classInfo.pojoSet.addAll(methodInfo.getReturnPojoSet()));
+            MethodInfo methodInfo = MethodInfo.handlePsiMethod(psiMethod, annoMap, skipComments);
+            methodList.add(methodInfo);
+            methodInfo.getAllParams().forEach(paramInfo -> pojoSet.addAll(paramInfo.getPojoSet()));
+            if (methodInfo.getReturnPojoSet() != null) pojoSet.addAll(methodInfo.getReturnPojoSet());
+        }
+        classInfo.methodList = methodList;
+        classInfo.pojoSet = pojoSet;
 
         return classInfo;
     }
 
+    private static boolean hasMappingAnnotation(Map<String, PsiAnnotation> annoMap) {
+        for (String mapping : Constant.MAPPING_ANNO_SET) {
+            if (annoMap.containsKey(mapping)) return true;
+        }
+        return false;
+    }
+
 }
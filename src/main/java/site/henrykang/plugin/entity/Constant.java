@@ -4,7 +4,9 @@ import com.intellij.openapi.Disposable;
 import com.intellij.openapi.util.Disposer;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 
 public class Constant {
 
@@ -24,15 +26,25 @@ public class Constant {
     // cache key
     public static final String CACHE_KEY_SAVE_PATH = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "savePath");
     public static final String CACHE_KEY_POJO_PACKAGES = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "pojoPackages");
-    public static final String CACHE_KEY_IS_CLEAR_CACHE = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "isClearCache");
     public static final String CACHE_KEY_IGNORE_DEPRECATED = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "ignoreDeprecated");
     public static final String CACHE_KEY_IGNORE_PARAM_TYPES = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "ignoreParamTypes");
+    public static final String CACHE_KEY_TYPE_RULES = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "typeRules");
+    public static final String CACHE_KEY_INCREMENTAL = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "incremental");
+    public static final String CACHE_KEY_TYPES_MODULE = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "typesModule");
+    public static final String CACHE_KEY_FAST_FORMAT = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "fastFormat");
+    public static final String CACHE_KEY_SKIP_COMMENTS = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "skipComments");
+    public static final String CACHE_KEY_WRITE_REPORT = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "writeReport");
+    public static final String CACHE_KEY_WATCH = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "watch");
+    public static final String CACHE_KEY_MODULE_SAVE_PATHS = String.join(".", PLUGIN_PACKAGE_NAME, PLUGIN_NAME, "cache", "moduleSavePaths");
 
     // template name
     public static final String FILE_TEMPLATE_NAME = PLUGIN_NAME + "_all";
     public static final String METHOD_TEMPLATE_NAME = PLUGIN_NAME + "_method";
     public static final String DOC_TEMPLATE_NAME = PLUGIN_NAME + "_doc";
 
+    // 共享类型定义文件名
+    public static final String TYPES_FILE_NAME = "types.js";
+
     // region support annotation qualifiedName
 
     // -- RequestMapping --
@@ -60,5 +72,21 @@ public class Constant {
     // -- JsonValue --
     public static final String ANNO_JSON_VALUE = "com.fasterxml.jackson.annotation.JsonValue";
 
+    // -- Deprecated --
+    public static final String ANNO_DEPRECATED = "java.lang.Deprecated";
+
+    // -- 提取 Controller 时在类、方法、参数上查找的注解，短类名 -> 全类名 --
+    public static final Map<String, String> CLASS_ANNO_MAP = shortNameMap(ANNO_REQUEST_MAPPING, ANNO_SWAGGER_TAG);
+    public static final Map<String, String> METHOD_ANNO_MAP = shortNameMap(ANNO_REQUEST_MAPPING, ANNO_GET_MAPPING, ANNO_POST_MAPPING, ANNO_PUT_MAPPING, ANNO_DELETE_MAPPING, ANNO_PATCH_MAPPING, ANNO_SWAGGER_OPERATION, ANNO_DEPRECATED);
+    public static final Map<String, String> PARAM_ANNO_MAP = shortNameMap(ANNO_REQUEST_PARAM, ANNO_REQUEST_BODY, ANNO_REQUEST_PART, ANNO_PATH_VARIABLE, ANNO_SWAGGER_PARAMETER);
+
     // endregion support annotation qualifiedName
+
+    private static Map<String, String> shortNameMap(String... qualifiedNames) {
+        Map<String, String> map = new HashMap<>();
+        for (String qualifiedName : qualifiedNames) {
+            map.put(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1), qualifiedName);
+        }
+        return map;
+    }
 }
@@ -1,19 +1,22 @@
 package site.henrykang.plugin.entity;
 
 import com.intellij.openapi.util.Pair;
+import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiType;
+import com.intellij.psi.javadoc.PsiDocComment;
 import lombok.Data;
 import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.index.EndpointIndex;
+import site.henrykang.plugin.index.EndpointRecord;
 import site.henrykang.plugin.service.JsDocTypeResolver;
 import site.henrykang.plugin.util.MyPsiUtil;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -56,19 +59,37 @@ public class MethodInfo {
     private Set<String> returnPojoSet;
 
     public static MethodInfo handlePsiMethod(@NotNull PsiMethod psiMethod) {
+        return handlePsiMethod(psiMethod, MyPsiUtil.collectAnnotations(psiMethod, Constant.METHOD_ANNO_MAP), false);
+    }
+
+    /**
+     * 注解、签名、参数类型均从 stub 中读取，只有读取注释时才会加载文件的 AST
+     *
+     * @param annoMap      方法上的注解，全类名 -> 注解，由调用方在筛选方法时一次收集
+     * @param skipComments 是否跳过 JavaDoc 注释，跳过时注释只从 Swagger 注解中提取
+     */
+    public static MethodInfo handlePsiMethod(@NotNull PsiMethod psiMethod, @NotNull Map<String, PsiAnnotation> annoMap, boolean skipComments) {
         MethodInfo methodInfo = new MethodInfo();
-        methodInfo.comment = MyPsiUtil.getSimpleComment(psiMethod.getAnnotation(Constant.ANNO_SWAGGER_OPERATION), List.of("summary"), psiMethod.getDocComment());
+        // 方法注释只解析一次，方法描述和所有参数的 @param 注释共用
+        PsiDocComment docComment = MyPsiUtil.getDocComment(psiMethod, skipComments);
+        methodInfo.comment = MyPsiUtil.getSimpleComment(annoMap.get(Constant.ANNO_SWAGGER_OPERATION), List.of("summary"), docComment);
         methodInfo.name = psiMethod.getName();
+        // 优先从索引中读取预计算的请求方式、路径和参数绑定信息，索引不可用时从 PSI 提取
+        EndpointRecord record = EndpointIndex.findRecord(psiMethod);
+        PsiParameter[] psiParameters = psiMethod.getParameterList().getParameters();
+        if (record != null && record.getParams().size() != psiParameters.length) record = null;
         // 提取请求方式和路径
-        Pair<String, String> pair = MyPsiUtil.getRequestMappingInfo(psiMethod);
+        Pair<String, String> pair = record != null ? Pair.pair(record.getMethod(), record.getUri()) : MyPsiUtil.getRequestMappingInfo(annoMap);
         methodInfo.method = pair.getFirst();
         methodInfo.uri = pair.getSecond().replaceAll("\\{", "\\${");
 
-        methodInfo.allParams = Arrays.stream(psiMethod.getParameterList().getParameters())
+        methodInfo.allParams = new ArrayList<>(psiParameters.length);
+        Map<String, String> paramCommentsMap = psiParameters.length == 0 ? Collections.emptyMap() : MyPsiUtil.getParamCommentsMap(docComment);
+        for (int i = 0; i < psiParameters.length; i++) {
             // 处理每个参数
-            .map(psiParameter -> ParamInfo.handlePsiParameter(psiMethod, psiParameter))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+            ParamInfo paramInfo = ParamInfo.handlePsiParameter(psiMethod, psiParameters[i], record != null ? record.getParams().get(i) : null, paramCommentsMap);
+            if (paramInfo != null) methodInfo.allParams.add(paramInfo);
+        }
         Map<String, List<ParamInfo>> map = methodInfo.allParams.stream().collect(Collectors.groupingBy(ParamInfo::getAnnoBindType));
         methodInfo.pathParams = map.getOrDefault("PathVariable", new ArrayList<>());
         methodInfo.queryParams = map.getOrDefault("RequestParam", new ArrayList<>());
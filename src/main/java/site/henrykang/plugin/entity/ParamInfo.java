@@ -1,15 +1,15 @@
 package site.henrykang.plugin.entity;
 
-import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiParameter;
-import com.intellij.psi.PsiType;
 import lombok.Data;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import site.henrykang.plugin.index.EndpointRecord;
 import site.henrykang.plugin.service.JsDocTypeResolver;
-import site.henrykang.plugin.service.PropertiesManager;
+import site.henrykang.plugin.service.TypeRuleManager;
 import site.henrykang.plugin.util.MyPsiUtil;
 import site.henrykang.plugin.util.StringUtil;
 
@@ -49,28 +49,47 @@ public class ParamInfo {
     private Boolean isPojo = false;
 
     public static ParamInfo handlePsiParameter(@NotNull PsiMethod psiMethod, @NotNull PsiParameter psiParameter) {
+        return handlePsiParameter(psiMethod, psiParameter, null, MyPsiUtil.getParamCommentsMap(psiMethod.getDocComment()));
+    }
+
+    /**
+     * @param paramRecord      索引中预计算的参数信息，不为 null 时直接使用其中的名称、绑定类型，否则从 PSI 提取
+     * @param paramCommentsMap 方法注释中的 @param 注释，由调用方对每个方法只解析一次
+     */
+    public static ParamInfo handlePsiParameter(@NotNull PsiMethod psiMethod, @NotNull PsiParameter psiParameter,
+                                               @Nullable EndpointRecord.ParamRecord paramRecord, @NotNull Map<String, String> paramCommentsMap) {
         ParamInfo paramInfo = new ParamInfo();
+        // 参数上的注解只遍历一次
+        Map<String, PsiAnnotation> annoMap = MyPsiUtil.collectAnnotations(psiParameter, Constant.PARAM_ANNO_MAP);
         // 参数注释
-        Map<String, String> paramCommentsMap = MyPsiUtil.getParamCommentsMap(psiMethod.getDocComment());
-        paramInfo.comment = MyPsiUtil.getAnnotationValueLiteralStrOrDefault(psiParameter.getAnnotation(Constant.ANNO_SWAGGER_PARAMETER), "description", paramCommentsMap.getOrDefault(psiParameter.getName(), ""));
+        paramInfo.comment = MyPsiUtil.getAnnotationValueLiteralStrOrDefault(annoMap.get(Constant.ANNO_SWAGGER_PARAMETER), "description", paramCommentsMap.getOrDefault(psiParameter.getName(), ""));
         // 参数名称、绑定类型
         paramInfo.name = psiParameter.getName();
-        for (String anno : Constant.PARAM_BIND_ANNO_SET) {
-            PsiAnnotation psiAnno = psiParameter.getAnnotation(anno);
-            if (psiAnno != null) {
-                paramInfo.annoBindType = anno.substring(anno.lastIndexOf('.') + 1);
-                paramInfo.isRequired = Boolean.valueOf(MyPsiUtil.getAnnotationValueLiteralStrOrDefault(psiAnno, "required", "true"));
-                // 请求参数名可能和方法参数名不一致，即提取注解的 value 属性值
-                if (!Objects.equals(anno, Constant.ANNO_REQUEST_BODY)) {
-                    paramInfo.name = MyPsiUtil.getAnnotationValueLiteralStrOrDefault(psiAnno, "value", paramInfo.name);
+        if (paramRecord != null) {
+            paramInfo.name = paramRecord.getName();
+            paramInfo.isRequired = paramRecord.isRequired();
+            // NoBindType 需要检查忽略列表，交给下面统一处理
+            if (!"NoBindType".equals(paramRecord.getAnnoBindType())) {
+                paramInfo.annoBindType = paramRecord.getAnnoBindType();
+            }
+        } else {
+            for (String anno : Constant.PARAM_BIND_ANNO_SET) {
+                PsiAnnotation psiAnno = annoMap.get(anno);
+                if (psiAnno != null) {
+                    paramInfo.annoBindType = anno.substring(anno.lastIndexOf('.') + 1);
+                    paramInfo.isRequired = Boolean.valueOf(MyPsiUtil.getAnnotationValueLiteralStrOrDefault(psiAnno, "required", "true"));
+                    // 请求参数名可能和方法参数名不一致，即提取注解的 value 属性值
+                    if (!Objects.equals(anno, Constant.ANNO_REQUEST_BODY)) {
+                        paramInfo.name = MyPsiUtil.getAnnotationValueLiteralStrOrDefault(psiAnno, "value", paramInfo.name);
+                    }
+                    break;
                 }
-                break;
             }
         }
         // 如果没有被参数绑定注解修饰，则设置默认值
         if (StringUtil.isEmpty(paramInfo.annoBindType)) {
             // 检查是否在忽略列表中
-            if (isIgnoredParameterType(psiParameter.getType(), psiParameter.getProject())) {
+            if (TypeRuleManager.getInstance(psiParameter.getProject()).isIgnored(psiParameter.getType())) {
                 return null;
             }
             // 设置默认值
@@ -93,46 +112,4 @@ public class ParamInfo {
         return paramInfo;
     }
 
-    /**
-     * 检查参数类型是否在忽略列表中
-     * @param psiType 参数类型
-     * @param project 项目
-     * @return true 表示应该忽略该参数
-     */
-    private static boolean isIgnoredParameterType(PsiType psiType, Project project) {
-        String qualifiedName = psiType.getCanonicalText();
-        String ignoreTypes = PropertiesManager.getInstance(project)
-            .get(Constant.CACHE_KEY_IGNORE_PARAM_TYPES);
-        
-        if (StringUtil.isBlank(ignoreTypes)) {
-            return false;
-        }
-
-        ignoreTypes = ignoreTypes.replaceAll("\n", "").replaceAll("\r", "");
-
-        // 解析配置的类型列表
-        String[] patterns = ignoreTypes.split(",");
-        
-        for (String pattern : patterns) {
-            if (StringUtil.isBlank(pattern)) {
-                continue;
-            }
-            pattern = pattern.trim();
-            if (pattern.endsWith("*")) {
-                // 包名通配符匹配
-                String prefix = pattern.substring(0, pattern.length() - 1);
-                if (qualifiedName.startsWith(prefix)) {
-                    return true;
-                }
-            } else {
-                // 精确匹配
-                if (qualifiedName.equals(pattern)) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-
 }
@@ -1,15 +1,27 @@
 package site.henrykang.plugin.entity;
 
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
 import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
 import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiType;
 import com.intellij.psi.PsiTypeParameter;
+import com.intellij.psi.PsiWildcardType;
 import com.intellij.psi.search.ProjectAndLibrariesScope;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.apache.commons.collections.set.UnmodifiableSet;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.service.GenMetrics;
 import site.henrykang.plugin.service.JsDocTypeResolver;
+import site.henrykang.plugin.service.ModelStore;
+import site.henrykang.plugin.service.PojoInfoCache;
 import site.henrykang.plugin.util.MyPsiUtil;
 
 import java.util.*;
@@ -19,6 +31,8 @@ import java.util.stream.Stream;
 @AllArgsConstructor
 public class PojoInfo {
 
+    /** pojo 全类名 */
+    private String qualifiedName;
     /** pojo 短类名 */
     private String name;
     /** 注释 */
@@ -63,38 +77,29 @@ public class PojoInfo {
         List<PojoInfo> resultList = new ArrayList<>();
         JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
         ProjectAndLibrariesScope searchScope = new ProjectAndLibrariesScope(project);
+        // 已解析的 pojo 在项目级缓存中共享，只有首次遇到的 pojo 才需要解析
+        PojoInfoCache pojoInfoCache = PojoInfoCache.getInstance(project);
+        // 内存缓存中没有时，先从持久化缓存中读取，IDE 重启后未修改的 pojo 不需要重新解析
+        ModelStore modelStore = ModelStore.getInstance(project);
 
         // 遍历所有类，收集属性的类型，每遍历一轮，通过差集判断是否有新增元素，若有则进行新一轮遍历
         Set<String> visitedSet = new HashSet<>(pojoSet);
         Set<String> currentSet = Set.copyOf(visitedSet);
         Set<String> newSet = new HashSet<>();
         while (true) {
-            List<PojoInfo> list = currentSet.stream()
-                .map(qualifiedName -> javaPsiFacade.findClass(qualifiedName, searchScope))
-                .map(findClass -> {
-                    if (findClass == null || findClass.isEnum() || findClass.isInterface()) {
-                        return null;
-                    }
-                    String name = findClass.getName();
-                    String comment = MyPsiUtil.getSimpleComment(findClass.getAnnotation(Constant.ANNO_SWAGGER_SCHEMA), List.of("title", "description"), findClass.getDocComment());
-                    // 泛型信息：E、T...
-                    List<String> typeParamList = Arrays.stream(findClass.getTypeParameters()).map(PsiTypeParameter::getName).toList();
-                    // 属性信息
-                    PsiField[] allFields = findClass.getAllFields();
-                    List<FieldVo> attributeList = Stream.of(allFields)
-                        .filter(psiField -> Stream.of("static", "final", "transient").noneMatch(psiField::hasModifierProperty))
-                        .map(psiField -> {
-                            String fieldComment = MyPsiUtil.getSimpleComment(psiField.getAnnotation(Constant.ANNO_SWAGGER_SCHEMA), List.of("title", "description"), psiField.getDocComment());
-                            Pair<String, Set<String>> resolve = JsDocTypeResolver.getInstance(psiField.getProject()).resolve(psiField.getType());
-                            newSet.addAll(resolve.getSecond());
-                            return new FieldVo(psiField.getName(), fieldComment, resolve.getFirst());
-                        })
-                        .toList();
-                    return new PojoInfo(name, comment, attributeList, typeParamList);
-                })
-                .filter(Objects::nonNull)
-                .toList();
-            resultList.addAll(list);
+            // 响应后台任务的取消操作
+            ProgressManager.checkCanceled();
+            GenMetrics.current().bfsRound();
+            for (String qualifiedName : currentSet) {
+                Pair<PojoInfo, Set<String>> pair = pojoInfoCache.get(qualifiedName, qn -> {
+                    long start = System.nanoTime();
+                    Pair<PojoInfo, Set<String>> resolved = modelStore.getPojoInfo(qn, javaPsiFacade.findClass(qn, searchScope), PojoInfo::resolvePojo);
+                    GenMetrics.current().recordPojo(qn, System.nanoTime() - start);
+                    return resolved;
+                });
+                if (pair.getFirst() != null) resultList.add(pair.getFirst());
+                newSet.addAll(pair.getSecond());
+            }
             newSet.removeAll(visitedSet);
             if (!newSet.isEmpty()) {
                 visitedSet.addAll(newSet); // 标记为已访问
@@ -108,4 +113,94 @@ public class PojoInfo {
         return resultList;
     }
 
+    /**
+     * 查找 pojo 位于项目源码中的所有父类、接口(含传递)，遇到不在项目源码中的类型时不再向上查找，需要在读操作中调用。
+     * 父类的字段同样是 pojo 的属性，修改父类时引用该 pojo 的文件需要重新生成
+     */
+    public static List<PsiClass> findProjectSupers(@NotNull PsiClass pojoClass) {
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(pojoClass.getProject());
+        List<PsiClass> resultList = new ArrayList<>();
+        Set<PsiClass> visitedSet = new HashSet<>();
+        Deque<PsiClass> queue = new ArrayDeque<>(Arrays.asList(pojoClass.getSupers()));
+        while (!queue.isEmpty()) {
+            PsiClass superClass = queue.poll();
+            if (superClass.getQualifiedName() == null || !visitedSet.add(superClass)) continue;
+            if (!isInSourceContent(superClass, fileIndex)) continue;
+            resultList.add(superClass);
+            queue.addAll(Arrays.asList(superClass.getSupers()));
+        }
+        return resultList;
+    }
+
+    /**
+     * 收集类型及其泛型参数引用的位于项目源码中的类(含枚举等非 pojo 类型)及其父类型，需要在读操作中调用
+     */
+    public static void collectProjectTypes(@NotNull PsiType type, @NotNull Set<PsiClass> resultSet) {
+        PsiType deepType = type.getDeepComponentType();
+        if (deepType instanceof PsiWildcardType wildcardType) {
+            if (wildcardType.getBound() != null) collectProjectTypes(wildcardType.getBound(), resultSet);
+        } else if (deepType instanceof PsiClassType classType) {
+            PsiClass psiClass = classType.resolve();
+            if (psiClass != null && !(psiClass instanceof PsiTypeParameter) && psiClass.getQualifiedName() != null
+                && isInSourceContent(psiClass, ProjectFileIndex.getInstance(psiClass.getProject())) && resultSet.add(psiClass)) {
+                // 父类型决定祖先类型的推断以及 Type+ 规则是否匹配，依赖库中的类型不会继承项目源码中的类型
+                resultSet.addAll(findProjectSupers(psiClass));
+            }
+            for (PsiType typeArg : classType.getParameters()) {
+                collectProjectTypes(typeArg, resultSet);
+            }
+        }
+    }
+
+    private static boolean isInSourceContent(PsiClass psiClass, ProjectFileIndex fileIndex) {
+        PsiFile psiFile = psiClass.getContainingFile();
+        VirtualFile virtualFile = psiFile == null ? null : psiFile.getVirtualFile();
+        return virtualFile != null && fileIndex.isInSourceContent(virtualFile);
+    }
+
+    /**
+     * 多个 pojo 位于项目源码中的所有父类、接口的全类名，需要在读操作中调用
+     */
+    public static Set<String> findProjectSuperNames(@NotNull Project project, @NotNull Collection<String> pojoQualifiedNames) {
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        ProjectAndLibrariesScope scope = new ProjectAndLibrariesScope(project);
+        Set<String> resultSet = new HashSet<>();
+        for (String qualifiedName : pojoQualifiedNames) {
+            PsiClass pojoClass = facade.findClass(qualifiedName, scope);
+            if (pojoClass == null) continue;
+            findProjectSupers(pojoClass).forEach(superClass -> resultSet.add(superClass.getQualifiedName()));
+        }
+        return resultSet;
+    }
+
+    /**
+     * 解析单个 pojo 类，返回 A-解析结果，不是 pojo 时为 null，B-属性涉及的 pojo 全类名集合
+     */
+    private static Pair<PojoInfo, Set<String>> resolvePojo(PsiClass findClass) {
+        ProgressManager.checkCanceled();
+        if (findClass == null || findClass.isEnum() || findClass.isInterface()) {
+            return Pair.pair(null, Collections.emptySet());
+        }
+        String name = findClass.getName();
+        // 跳过注释时只读取 stub 中的信息，不加载 pojo 文件的 AST
+        boolean skipComments = MyPsiUtil.isSkipComments(findClass.getProject());
+        String comment = MyPsiUtil.getSimpleComment(findClass.getAnnotation(Constant.ANNO_SWAGGER_SCHEMA), List.of("title", "description"), MyPsiUtil.getDocComment(findClass, skipComments));
+        // 泛型信息：E、T...
+        List<String> typeParamList = Arrays.stream(findClass.getTypeParameters()).map(PsiTypeParameter::getName).toList();
+        // 属性信息
+        Set<String> dependencySet = new HashSet<>();
+        PsiField[] allFields = findClass.getAllFields();
+        List<FieldVo> attributeList = Stream.of(allFields)
+            .filter(psiField -> Stream.of("static", "final", "transient").noneMatch(psiField::hasModifierProperty))
+            .map(psiField -> {
+                String fieldComment = MyPsiUtil.getSimpleComment(psiField.getAnnotation(Constant.ANNO_SWAGGER_SCHEMA), List.of("title", "description"), MyPsiUtil.getDocComment(psiField, skipComments));
+                Pair<String, Set<String>> resolve = JsDocTypeResolver.getInstance(psiField.getProject()).resolve(psiField.getType());
+                dependencySet.addAll(resolve.getSecond());
+                return new FieldVo(psiField.getName(), fieldComment, resolve.getFirst());
+            })
+            .toList();
+        PojoInfo pojoInfo = new PojoInfo(findClass.getQualifiedName(), name, comment, attributeList, typeParamList);
+        return Pair.pair(pojoInfo, Set.copyOf(dependencySet));
+    }
+
 }
@@ -0,0 +1,228 @@
+package site.henrykang.plugin.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.intellij.util.text.CharArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.util.MyPsiUtil;
+import site.henrykang.plugin.util.StringUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring 接口索引：
+ * <pre>
+ * key：Controller 短类名
+ * value：该类中所有接口方法的 {@link EndpointRecord}
+ * </pre>
+ * 索引阶段不能解析引用，所以注解按源码写法和 import 语句判断全类名，属性值只读取显式声明的字面量。
+ * 由平台在文件变化时增量更新，生成代码时可以直接读取，只有类型解析才需要访问 PSI
+ */
+public class EndpointIndex extends FileBasedIndexExtension<String, List<EndpointRecord>> {
+
+    public static final ID<String, List<EndpointRecord>> NAME = ID.create(Constant.PLUGIN_PACKAGE_NAME + ".EndpointIndex");
+
+    @Override
+    public @NotNull ID<String, List<EndpointRecord>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<EndpointRecord>, FileContent> getIndexer() {
+        return inputData -> {
+            // 快速过滤，不包含 RequestMapping 的文件不会构建 PSI
+            if (CharArrayUtil.indexOf(inputData.getContentAsText(), MyPsiUtil.getShortName(Constant.ANNO_REQUEST_MAPPING), 0) < 0) {
+                return Collections.emptyMap();
+            }
+            if (!(inputData.getPsiFile() instanceof PsiJavaFile psiJavaFile)) return Collections.emptyMap();
+
+            Map<String, List<EndpointRecord>> result = new HashMap<>();
+            for (PsiClass psiClass : psiJavaFile.getClasses()) {
+                PsiAnnotation classAnno = MyPsiUtil.findAnnotationByImport(psiClass, Constant.ANNO_REQUEST_MAPPING);
+                if (classAnno == null || psiClass.getName() == null) continue;
+                String reqPrefix = StringUtil.trimSlashes(MyPsiUtil.getDeclaredAnnotationValueLiteralStr(classAnno, "value"));
+                List<EndpointRecord> list = new ArrayList<>();
+                for (PsiMethod psiMethod : psiClass.getMethods()) {
+                    EndpointRecord record = indexMethod(psiMethod, reqPrefix);
+                    if (record != null) list.add(record);
+                }
+                result.put(psiClass.getName(), list);
+            }
+            return result;
+        };
+    }
+
+    @Nullable
+    private static EndpointRecord indexMethod(PsiMethod psiMethod, String reqPrefix) {
+        // 优先查找 RequestMapping，再查找其他 Mapping
+        String method = null;
+        String path = "";
+        PsiAnnotation anno = MyPsiUtil.findAnnotationByImport(psiMethod, Constant.ANNO_REQUEST_MAPPING);
+        if (anno != null) {
+            method = MyPsiUtil.getDeclaredAnnotationValueLiteralStr(anno, "method").toLowerCase();
+            path = MyPsiUtil.getDeclaredAnnotationValueLiteralStr(anno, "value");
+        } else {
+            for (String mapping : Constant.MAPPING_ANNO_SET) {
+                anno = MyPsiUtil.findAnnotationByImport(psiMethod, mapping);
+                if (anno != null) {
+                    method = MyPsiUtil.getHttpMethod(mapping);
+                    path = MyPsiUtil.getDeclaredAnnotationValueLiteralStr(anno, "value");
+                    break;
+                }
+            }
+        }
+        if (method == null) return null;
+
+        List<EndpointRecord.ParamRecord> params = new ArrayList<>();
+        for (PsiParameter psiParameter : psiMethod.getParameterList().getParameters()) {
+            String name = psiParameter.getName();
+            String annoBindType = "NoBindType";
+            boolean required = true;
+            for (String bindAnno : Constant.PARAM_BIND_ANNO_SET) {
+                PsiAnnotation psiAnno = MyPsiUtil.findAnnotationByImport(psiParameter, bindAnno);
+                if (psiAnno != null) {
+                    annoBindType = MyPsiUtil.getShortName(bindAnno);
+                    required = Boolean.parseBoolean(MyPsiUtil.getDeclaredAnnotationValueLiteralStrOrDefault(psiAnno, "required", "true"));
+                    if (!Constant.ANNO_REQUEST_BODY.equals(bindAnno)) {
+                        name = MyPsiUtil.getDeclaredAnnotationValueLiteralStrOrDefault(psiAnno, "value", name);
+                    }
+                    break;
+                }
+            }
+            String typeText = psiParameter.getTypeElement() != null ? psiParameter.getTypeElement().getText() : "";
+            params.add(new EndpointRecord.ParamRecord(psiParameter.getName(), name, annoBindType, required, typeText));
+        }
+
+        return new EndpointRecord(psiMethod.getName(), EndpointRecord.signatureOf(psiMethod), method, reqPrefix, StringUtil.trimSlashes(path), params);
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<EndpointRecord>> getValueExternalizer() {
+        return RecordListExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * 获取文件中所有 Controller 的接口记录，key 为短类名。索引不可用时返回 null，调用方应回退到 PSI 解析
+     */
+    @Nullable
+    public static Map<String, List<EndpointRecord>> getFileRecords(@NotNull Project project, @Nullable VirtualFile virtualFile) {
+        if (virtualFile == null || DumbService.isDumb(project)) return null;
+        return FileBasedIndex.getInstance().getFileData(NAME, virtualFile, project);
+    }
+
+    /**
+     * 查找 PsiMethod 对应的接口记录，未找到时返回 null
+     */
+    @Nullable
+    public static EndpointRecord findRecord(@NotNull PsiMethod psiMethod) {
+        PsiClass psiClass = psiMethod.getContainingClass();
+        PsiFile psiFile = psiMethod.getContainingFile();
+        if (psiClass == null || psiFile == null) return null;
+        Map<String, List<EndpointRecord>> fileRecords = getFileRecords(psiMethod.getProject(), psiFile.getVirtualFile());
+        if (fileRecords == null) return null;
+        String signature = EndpointRecord.signatureOf(psiMethod);
+        return fileRecords.getOrDefault(psiClass.getName(), Collections.emptyList())
+            .stream()
+            .filter(record -> signature.equals(record.getSignature()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * 序列化：记录数 + 每条记录的字段，字符串使用 UTF 编码
+     */
+    private static class RecordListExternalizer implements DataExternalizer<List<EndpointRecord>> {
+
+        private static final RecordListExternalizer INSTANCE = new RecordListExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, List<EndpointRecord> records) throws IOException {
+            DataInputOutputUtil.writeINT(out, records.size());
+            for (EndpointRecord record : records) {
+                IOUtil.writeUTF(out, record.getName());
+                IOUtil.writeUTF(out, record.getSignature());
+                IOUtil.writeUTF(out, record.getMethod());
+                IOUtil.writeUTF(out, record.getReqPrefix());
+                IOUtil.writeUTF(out, record.getUri());
+                DataInputOutputUtil.writeINT(out, record.getParams().size());
+                for (EndpointRecord.ParamRecord param : record.getParams()) {
+                    IOUtil.writeUTF(out, param.getParamName());
+                    IOUtil.writeUTF(out, param.getName());
+                    IOUtil.writeUTF(out, param.getAnnoBindType());
+                    out.writeBoolean(param.isRequired());
+                    IOUtil.writeUTF(out, param.getTypeText());
+                }
+            }
+        }
+
+        @Override
+        public List<EndpointRecord> read(@NotNull DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+            List<EndpointRecord> records = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String name = IOUtil.readUTF(in);
+                String signature = IOUtil.readUTF(in);
+                String method = IOUtil.readUTF(in);
+                String reqPrefix = IOUtil.readUTF(in);
+                String uri = IOUtil.readUTF(in);
+                int paramSize = DataInputOutputUtil.readINT(in);
+                List<EndpointRecord.ParamRecord> params = new ArrayList<>(paramSize);
+                for (int j = 0; j < paramSize; j++) {
+                    params.add(new EndpointRecord.ParamRecord(IOUtil.readUTF(in), IOUtil.readUTF(in), IOUtil.readUTF(in), in.readBoolean(), IOUtil.readUTF(in)));
+                }
+                records.add(new EndpointRecord(name, signature, method, reqPrefix, uri, params));
+            }
+            return records;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package site.henrykang.plugin.index;
+
+import com.intellij.psi.PsiMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Controller 方法的预计算信息，由 {@link EndpointIndex} 在索引阶段生成
+ */
+@Data
+@AllArgsConstructor
+public class EndpointRecord {
+
+    /** 方法名 */
+    private String name;
+    /** 方法签名标识，用于从 PsiMethod 定位记录，形如 {@code getUser(Long id,String name)} */
+    private String signature;
+    /** 请求方式 get delete post put patch */
+    private String method;
+    /** 类上的请求路径，不包含前缀和后缀 / */
+    private String reqPrefix;
+    /** 方法上的请求路径，不包含前缀和后缀 / */
+    private String uri;
+    /** 参数列表，与方法声明顺序一致 */
+    private List<ParamRecord> params;
+
+    @Data
+    @AllArgsConstructor
+    public static class ParamRecord {
+
+        /** 方法参数名 */
+        private String paramName;
+        /** 请求参数名，优先取参数绑定注解的值，其次取参数名 */
+        private String name;
+        /** 参数绑定注解类型：RequestParam、RequestBody、RequestPart、PathVariable，否则为 NoBindType */
+        private String annoBindType;
+        /** 是否必须 */
+        private boolean required;
+        /** 源码中声明的参数类型文本 */
+        private String typeText;
+
+    }
+
+    /**
+     * 计算方法签名标识，使用方法名、擦除泛型后的参数类型和参数名，重载方法的标识不同。
+     * 参数类型只取源码中的短类名，可以从 stub 中获取，无需加载 AST 和解析引用
+     */
+    @NotNull
+    public static String signatureOf(@NotNull PsiMethod psiMethod) {
+        return psiMethod.getName() + Arrays.stream(psiMethod.getParameterList().getParameters())
+            .map(p -> eraseTypeArgs(p.getType().getPresentableText()) + " " + p.getName())
+            .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * 去掉类型文本中的泛型参数，支持嵌套：{@code Map<String, List<Long>>} -> {@code Map}
+     */
+    @NotNull
+    static String eraseTypeArgs(@NotNull String typeText) {
+        if (typeText.indexOf('<') < 0) return typeText;
+        StringBuilder sb = new StringBuilder(typeText.length());
+        int depth = 0;
+        for (int i = 0; i < typeText.length(); i++) {
+            char c = typeText.charAt(i);
+            if (c == '<') depth++;
+            else if (c == '>') depth--;
+            else if (depth == 0) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,82 @@
+package site.henrykang.plugin.listener;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.NewVirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.service.DependencyGraph;
+import site.henrykang.plugin.service.GenWatchService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 监听项目源码中 java 文件的保存、新建、移动、删除，交给 {@link GenWatchService} 处理。
+ * 在写操作中回调，只做过滤，不做任何耗时操作
+ */
+public class GenWatchListener implements BulkFileListener {
+
+    private final Project project;
+
+    public GenWatchListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 删除、移动前文件仍然有效，记录其中(目录时为已加载的子文件)的 java 文件路径，
+     * 交给 {@link GenWatchService#filesRemoved(Collection)} 清理其中的 Controller 的记录
+     */
+    @Override
+    public void before(@NotNull List<? extends @NotNull VFileEvent> events) {
+        if (project.isDisposed() || DependencyGraph.getInstance(project).isEmpty()) return;
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        List<String> paths = new ArrayList<>();
+        for (VFileEvent event : events) {
+            if (!(event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent)) continue;
+            VirtualFile file = event.getFile();
+            if (file != null && file.isValid() && fileIndex.isInSourceContent(file)) collectJavaFiles(file, paths);
+        }
+        GenWatchService.getInstance(project).filesRemoved(paths);
+    }
+
+    /**
+     * 只遍历已加载的子文件，不在写操作中读取磁盘
+     */
+    private static void collectJavaFiles(VirtualFile file, List<String> paths) {
+        if (!file.isDirectory()) {
+            if (Objects.equals(file.getExtension(), "java")) paths.add(file.getPath());
+            return;
+        }
+        if (!(file instanceof NewVirtualFile dir)) return;
+        for (VirtualFile child : dir.getCachedChildren()) {
+            collectJavaFiles(child, paths);
+        }
+    }
+
+    @Override
+    public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+        if (project.isDisposed()) return;
+        GenWatchService watchService = GenWatchService.getInstance(project);
+        if (!watchService.isWatchEnabled()) return;
+
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        List<VirtualFile> files = new ArrayList<>();
+        for (VFileEvent event : events) {
+            if (!(event instanceof VFileContentChangeEvent || event instanceof VFileCreateEvent || event instanceof VFileMoveEvent)) continue;
+            VirtualFile file = event.getFile();
+            if (file == null || !Objects.equals(file.getExtension(), "java")) continue;
+            if (fileIndex.isInSourceContent(file)) files.add(file);
+        }
+        watchService.filesChanged(files);
+    }
+
+}
@@ -0,0 +1,155 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 生成结果的反向依赖图，持久化在 IDE 缓存中：
+ * <pre>
+ * 正向：输出文件 -> Controller 全类名 + 涉及的所有 pojo(含传递依赖) 全类名 + pojo 在项目源码中的父类、接口全类名
+ * 反向：Controller、pojo、父类型全类名 -> 引用它的输出文件，由正向数据在内存中构建
+ * </pre>
+ * 每次生成后更新，修改某个 pojo 时可以直接得到需要重新生成的文件，不需要重新解析所有 Controller
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "AxiosCodeGenDependencyGraph", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public final class DependencyGraph implements PersistentStateComponent<DependencyGraph.GraphState> {
+
+    /** 持久化数据的格式版本，OutputNode 增减字段时修改，旧版本的数据直接丢弃，下次生成时重建 */
+    static final int VERSION = 2;
+
+    private GraphState state = new GraphState();
+    /** 反向索引，key：类全类名，value：输出文件绝对路径 */
+    private Map<String, Set<String>> reverseMap;
+
+    public static DependencyGraph getInstance(@NotNull Project project) {
+        return project.getService(DependencyGraph.class);
+    }
+
+    public static class GraphState {
+        /** 写出时的格式版本，旧版本的数据中没有该字段，读取为 0 */
+        public int version;
+        /** key：输出文件绝对路径 */
+        public Map<String, OutputNode> outputs = new TreeMap<>();
+    }
+
+    public static class OutputNode {
+        /** Controller 全类名 */
+        public String controller;
+        /** 涉及的所有 pojo(含传递依赖) 全类名 */
+        public List<String> pojos = new ArrayList<>();
+        /** pojo 在项目源码中的父类、接口全类名，只用于查找受影响的文件，不输出类型定义 */
+        public List<String> supers = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized GraphState getState() {
+        GraphState copy = new GraphState();
+        copy.version = VERSION;
+        copy.outputs.putAll(state.outputs);
+        return copy;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull GraphState state) {
+        this.state = state.version == VERSION ? state : new GraphState();
+        this.reverseMap = null;
+    }
+
+    public synchronized boolean isEmpty() {
+        return state.outputs.isEmpty();
+    }
+
+    /**
+     * 记录输出文件的依赖
+     */
+    public synchronized void update(@NotNull String outputPath, @NotNull String controller, @NotNull Collection<String> pojos, @NotNull Collection<String> supers) {
+        OutputNode node = new OutputNode();
+        node.controller = controller;
+        node.pojos = new ArrayList<>(new TreeSet<>(pojos));
+        node.supers = new ArrayList<>(new TreeSet<>(supers));
+        state.outputs.put(outputPath, node);
+        reverseMap = null;
+    }
+
+    public synchronized void remove(@NotNull String outputPath) {
+        if (state.outputs.remove(outputPath) != null) reverseMap = null;
+    }
+
+    /**
+     * 查找直接或间接引用了指定类的输出文件
+     *
+     * @param qualifiedNames Controller、pojo、pojo 父类型全类名
+     * @return 输出文件绝对路径 -> Controller 全类名
+     */
+    @NotNull
+    public synchronized Map<String, String> findAffectedOutputs(@NotNull Collection<String> qualifiedNames) {
+        Map<String, Set<String>> reverse = this.getReverseMap();
+        Map<String, String> result = new TreeMap<>();
+        for (String qualifiedName : qualifiedNames) {
+            for (String outputPath : reverse.getOrDefault(qualifiedName, Set.of())) {
+                result.put(outputPath, state.outputs.get(outputPath).controller);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 所有输出文件及对应的 Controller
+     *
+     * @return 输出文件绝对路径 -> Controller 全类名
+     */
+    @NotNull
+    public synchronized Map<String, String> getControllers() {
+        Map<String, String> result = new TreeMap<>();
+        state.outputs.forEach((outputPath, node) -> {
+            if (node.controller != null) result.put(outputPath, node.controller);
+        });
+        return result;
+    }
+
+    /**
+     * 指定目录下(不含子目录)所有输出文件涉及的 pojo
+     *
+     * @param directory 输出目录绝对路径
+     * @return 输出文件绝对路径 -> pojo 全类名
+     */
+    @NotNull
+    public synchronized Map<String, List<String>> getPojosIn(@NotNull Path directory) {
+        Map<String, List<String>> result = new TreeMap<>();
+        state.outputs.forEach((outputPath, node) -> {
+            if (directory.equals(Path.of(outputPath).getParent())) result.put(outputPath, node.pojos);
+        });
+        return result;
+    }
+
+    private Map<String, Set<String>> getReverseMap() {
+        if (reverseMap == null) {
+            Map<String, Set<String>> map = new HashMap<>();
+            state.outputs.forEach((outputPath, node) -> {
+                if (node.controller != null) map.computeIfAbsent(node.controller, k -> new HashSet<>()).add(outputPath);
+                node.pojos.forEach(pojo -> map.computeIfAbsent(pojo, k -> new HashSet<>()).add(outputPath));
+                node.supers.forEach(superName -> map.computeIfAbsent(superName, k -> new HashSet<>()).add(outputPath));
+            });
+            reverseMap = map;
+        }
+        return reverseMap;
+    }
+
+}
@@ -0,0 +1,484 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.apache.velocity.VelocityContext;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.PojoInfo;
+import site.henrykang.plugin.util.JsFormatter;
+import site.henrykang.plugin.util.MyPsiUtil;
+import site.henrykang.plugin.util.StringUtil;
+import site.henrykang.plugin.util.TemplateUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * 批量生成 xxxApi.js 文件，分为三个阶段：
+ * <pre>
+ * 1. 分析：在有界线程池中并行处理每个 Controller，在非阻塞读操作中提取 ClassInfo、PojoInfo
+ * 2. 渲染：在同一工作线程中使用提取出的模型填充模板并格式化，格式化只作用于非物理 PSI，不需要写锁，
+ *    结果写入临时文件，不在内存中保留。使用轻量级格式化时模板输出以流的方式逐行格式化写出
+ * 3. 写出：所有 Controller 处理完成后，批量提交临时文件，内容未变化的文件不会写出
+ * </pre>
+ * 开启增量生成时，根据输出目录下的 {@link GenerationManifest} 跳过 Controller 及其涉及的 pojo 均未变化的文件。
+ * 开启共享类型定义时，所有 pojo 定义只输出一次到 types.js，各 xxxApi.js 中只保留 import 引用。
+ * 各阶段耗时记录在 {@link GenMetrics} 中，可选写出为 json 报告
+ */
+public class FileGenerator {
+
+    private static final Logger LOG = Logger.getInstance(FileGenerator.class);
+
+    private final Project project;
+    /** 保存路径 */
+    private final Path savePath;
+    /** 并行度 */
+    private final int parallelism;
+
+    /** 多个输出目录共享的线程池，由调用方创建和关闭，为 null 时按并行度创建 */
+    @Setter
+    @Accessors(chain = true)
+    private ExecutorService executor;
+
+    /** 是否增量生成 */
+    @Setter
+    @Accessors(chain = true)
+    private boolean incremental = true;
+
+    /** 是否将 pojo 定义输出到共享的 types.js */
+    @Setter
+    @Accessors(chain = true)
+    private boolean typesModule = false;
+
+    /** 是否使用轻量级格式化 {@link JsFormatter}，不构建 js PSI */
+    @Setter
+    @Accessors(chain = true)
+    private boolean fastFormat = false;
+
+    /** 是否将本次生成的统计报告写入输出目录 */
+    @Setter
+    @Accessors(chain = true)
+    private boolean writeReport = false;
+
+    /** 结束时是否写出 {@link ModelStore}，多个输出目录并发生成时由调用方在全部结束后写出一次 */
+    @Setter
+    @Accessors(chain = true)
+    private boolean saveModelStore = true;
+
+    /** 处理总数 */
+    @Getter
+    private int allCnt;
+    /** 失败个数 */
+    @Getter
+    private int errCnt;
+    /** 未变化而跳过的个数 */
+    @Getter
+    private int skipCnt;
+    /** 内容有变化而写出的个数 */
+    @Getter
+    private int writtenCnt;
+    /** 重新生成后内容与原文件一致的个数 */
+    @Getter
+    private int identicalCnt;
+    /** 各阶段耗时统计 */
+    @Getter
+    private final GenMetrics metrics = new GenMetrics();
+
+    /** 生成清单 */
+    private GenerationManifest manifest;
+    /** 本次生成的临时目录 */
+    private Path tempDir;
+
+    public FileGenerator(@NotNull Project project, @NotNull Path savePath) {
+        this(project, savePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FileGenerator(@NotNull Project project, @NotNull Path savePath, int parallelism) {
+        this.project = project;
+        this.savePath = savePath;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void generate(@NotNull List<PsiClass> psiClassList, @NotNull ProgressIndicator indicator) {
+        this.allCnt = psiClassList.size();
+        this.errCnt = 0;
+        this.skipCnt = 0;
+        this.writtenCnt = 0;
+        this.identicalCnt = 0;
+        indicator.setIndeterminate(false);
+        indicator.setFraction(0);
+
+        try {
+            this.tempDir = Files.createTempDirectory(Constant.PLUGIN_NAME);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // 调用线程中解析 types.js 涉及的 pojo 时同样记录统计
+        metrics.bind();
+        try {
+            // 模板只在开始时加载一次，之后并发渲染
+            TemplateUtil.reloadTemplate();
+
+            // 加载生成清单，配置或模板变化时清单失效
+            this.manifest = GenerationManifest.load(savePath);
+            String configHash = this.computeConfigHash();
+            if (!configHash.equals(manifest.getConfigHash())) {
+                manifest.getEntries().clear();
+                manifest.setConfigHash(configHash);
+            }
+
+            // 分析、渲染阶段，失败时结果为 null
+            AtomicReferenceArray<Output> results = new AtomicReferenceArray<>(allCnt);
+            AtomicInteger doneCnt = new AtomicInteger();
+            ExecutorService executor = this.executor != null ? this.executor : AppExecutorUtil.createBoundedApplicationPoolExecutor(Constant.PLUGIN_NAME, parallelism);
+            List<Future<?>> futures = new ArrayList<>(allCnt);
+            try {
+                for (int i = 0; i < allCnt; i++) {
+                    int index = i;
+                    PsiClass psiClass = psiClassList.get(i);
+                    futures.add(executor.submit(() -> ProgressManager.getInstance().executeProcessUnderProgress(() -> {
+                        metrics.bind();
+                        try {
+                            results.set(index, this.handlePsiClass(psiClass, indicator));
+                        } finally {
+                            GenMetrics.unbind();
+                        }
+                        indicator.setFraction((double) doneCnt.incrementAndGet() / allCnt);
+                    }, indicator)));
+                }
+                for (Future<?> future : futures) {
+                    waitFor(future, indicator);
+                }
+            } finally {
+                // 共享的线程池只取消自己提交的任务
+                if (executor != this.executor) executor.shutdownNow();
+                else futures.forEach(future -> future.cancel(true));
+            }
+
+            // 写出阶段，所有文件在一次批量操作中写出
+            indicator.setText("Writing files");
+            indicator.setText2(null);
+            Map<Path, Path> files = new LinkedHashMap<>();
+            for (int i = 0; i < allCnt; i++) {
+                Output result = results.get(i);
+                if (result != null && !result.skipped) files.put(savePath.resolve(result.fileName), result.tempFile);
+            }
+            Path typesPath = savePath.resolve(Constant.TYPES_FILE_NAME);
+            if (typesModule) {
+                try {
+                    files.put(typesPath, this.renderTypesFile(results, indicator));
+                } catch (IOException ex) {
+                    LOG.warn("Failed to render " + Constant.TYPES_FILE_NAME, ex);
+                    errCnt++;
+                }
+            }
+            long writeStart = System.nanoTime();
+            MyPsiUtil.CommitResult writeResult = MyPsiUtil.commitFiles(project, files);
+            metrics.record(GenMetrics.Stage.WRITE, System.nanoTime() - writeStart);
+            if (writeResult.failed().contains(typesPath)) errCnt++;
+            DependencyGraph graph = DependencyGraph.getInstance(project);
+
+            for (int i = 0; i < allCnt; i++) {
+                Output result = results.get(i);
+                if (result == null) {
+                    errCnt++;
+                    continue;
+                }
+                Path path = savePath.resolve(result.fileName);
+                if (result.skipped) {
+                    skipCnt++;
+                    if (result.controller != null) graph.update(path.toAbsolutePath().normalize().toString(), result.controller, result.pojoClosure, result.superClosure);
+                    continue;
+                }
+                if (writeResult.written().contains(path)) {
+                    writtenCnt++;
+                } else if (writeResult.unchanged().contains(path)) {
+                    identicalCnt++;
+                } else {
+                    // 读取或写出失败
+                    errCnt++;
+                    manifest.getEntries().remove(result.fileName);
+                    continue;
+                }
+                // 写出成功后才记录到清单、依赖图
+                if (result.controller != null) graph.update(path.toAbsolutePath().normalize().toString(), result.controller, result.pojoClosure, result.superClosure);
+                if (result.entry != null) manifest.getEntries().put(result.fileName, result.entry);
+                else manifest.getEntries().remove(result.fileName);
+            }
+            manifest.save(savePath);
+            if (saveModelStore) ModelStore.getInstance(project).save();
+            if (writeReport) metrics.writeReport(savePath);
+        } finally {
+            GenMetrics.unbind();
+            FileUtil.delete(tempDir.toFile());
+        }
+        indicator.setFraction(1);
+    }
+
+    /**
+     * 处理单个 Controller，失败时返回 null
+     */
+    private Output handlePsiClass(PsiClass psiClass, ProgressIndicator indicator) {
+        indicator.checkCanceled();
+        long start = System.nanoTime();
+        try {
+            // 在非阻塞读操作中提取模型，遇到写操作时会自动重启，不会卡住 UI
+            Output output = ReadAction.nonBlocking(() -> {
+                    if (!psiClass.isValid()) return null;
+                    String resultFileName = getResultFileName(psiClass.getName());
+                    // 增量生成时，跳过未变化的文件
+                    if (incremental && manifest.isUpToDate(savePath, resultFileName, psiClass)) {
+                        GenerationManifest.Entry upToDate = manifest.getEntries().get(resultFileName);
+                        return new Output(resultFileName, psiClass.getQualifiedName(), null, null, upToDate.getPojoStamps().keySet(), upToDate.getSuperStamps().keySet(), null, true);
+                    }
+                    indicator.setText2(psiClass.getName());
+                    LOG.info("handling: " + psiClass.getName());
+                    // 处理每个类，封装方法、参数信息
+                    // 读操作被写操作打断时会重新执行，耗时只记录在结果中，完成后才计入统计
+                    long classStart = System.nanoTime();
+                    // IDE 重启后，未修改的 Controller 从持久化缓存中读取
+                    ClassInfo classInfo = ModelStore.getInstance(project).getClassInfo(psiClass, () -> ClassInfo.handlePsiClass(psiClass));
+                    long pojoStart = System.nanoTime();
+                    // 提取 JSDoc Pojo 类定义信息
+                    List<PojoInfo> pojoList = PojoInfo.handlePojoInfo(psiClass.getProject(), classInfo.getPojoSet());
+                    long pojoEnd = System.nanoTime();
+                    // 记录 Controller 及其涉及的所有 pojo 的修改标记
+                    Set<String> pojoClosure = new HashSet<>(classInfo.getPojoSet());
+                    pojoList.forEach(pojoInfo -> pojoClosure.add(pojoInfo.getQualifiedName()));
+                    GenerationManifest.Entry entry = GenerationManifest.createEntry(psiClass, pojoClosure);
+                    // pojo 在项目源码中的父类型，记录到依赖图中，修改父类型时同样需要重新生成
+                    Set<String> superClosure = entry != null ? entry.getSuperStamps().keySet() : PojoInfo.findProjectSuperNames(project, pojoClosure);
+                    Output result = new Output(resultFileName, psiClass.getQualifiedName(), classInfo, pojoList, pojoClosure, superClosure, entry, false);
+                    result.classNanos = pojoStart - classStart;
+                    result.pojoNanos = pojoEnd - pojoStart;
+                    return result;
+                })
+                .wrapProgress(indicator)
+                .executeSynchronously();
+            if (output == null || output.skipped) return output;
+            metrics.record(GenMetrics.Stage.CLASS_INFO, output.classNanos);
+            metrics.record(GenMetrics.Stage.POJO_INFO, output.pojoNanos);
+            // 模板填充
+            VelocityContext ctx = new VelocityContext();
+            ctx.put("clazz", output.classInfo);
+            ctx.put("pojoList", output.pojoList);
+            ctx.put("typesModule", typesModule);
+            output.tempFile = this.renderToFile(ctx, Constant.FILE_TEMPLATE_NAME, "", output.fileName, indicator);
+            metrics.recordController(output.classInfo.getName(), System.nanoTime() - start);
+            LOG.info("completed: " + output.fileName);
+            return output;
+        } catch (ProcessCanceledException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            LOG.error("Error occurred: " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * 渲染共享类型定义文件，包含输出目录下所有 xxxApi.js 涉及的 pojo，每个 pojo 只输出一次。
+     * 本次重新解析的 Controller 使用解析结果，其余文件(跳过的、失败的、不在本次范围内的)通过依赖图、清单中记录的 pojo 全类名从缓存中获取。
+     * 依赖图不随配置变化清空，只重新生成部分文件时(如监听模式、配置变化后)不会丢失其他文件引用的定义
+     */
+    private Path renderTypesFile(AtomicReferenceArray<Output> results, ProgressIndicator indicator) throws IOException {
+        Map<String, PojoInfo> pojoMap = new HashMap<>();
+        Set<String> handledFileSet = new HashSet<>();
+        Set<String> skippedPojoSet = new HashSet<>();
+        for (int i = 0; i < results.length(); i++) {
+            Output result = results.get(i);
+            if (result == null) continue;
+            handledFileSet.add(result.fileName);
+            if (result.skipped) {
+                skippedPojoSet.addAll(result.pojoClosure);
+            } else {
+                result.pojoList.forEach(pojoInfo -> pojoMap.putIfAbsent(pojoInfo.getQualifiedName(), pojoInfo));
+            }
+        }
+        DependencyGraph.getInstance(project).getPojosIn(savePath.toAbsolutePath().normalize()).forEach((outputPath, pojos) -> {
+            Path path = Path.of(outputPath);
+            if (!handledFileSet.contains(path.getFileName().toString()) && Files.exists(path)) skippedPojoSet.addAll(pojos);
+        });
+        manifest.getEntries().forEach((fileName, entry) -> {
+            if (!handledFileSet.contains(fileName)) skippedPojoSet.addAll(entry.getPojoStamps().keySet());
+        });
+        skippedPojoSet.removeAll(pojoMap.keySet());
+        if (!skippedPojoSet.isEmpty()) {
+            ReadAction.nonBlocking(() -> PojoInfo.handlePojoInfo(project, skippedPojoSet))
+                .wrapProgress(indicator)
+                .executeSynchronously()
+                .forEach(pojoInfo -> pojoMap.putIfAbsent(pojoInfo.getQualifiedName(), pojoInfo));
+        }
+
+        // 排序保证输出稳定
+        List<PojoInfo> pojoList = pojoMap.values().stream()
+            .sorted(Comparator.comparing(PojoInfo::getName).thenComparing(PojoInfo::getQualifiedName))
+            .toList();
+        VelocityContext ctx = new VelocityContext();
+        ctx.put("pojoList", pojoList);
+        // export 使文件成为 ES 模块，否则 import('./types') 无法引用其中的定义
+        return this.renderToFile(ctx, Constant.DOC_TEMPLATE_NAME, "\nexport {};\n", Constant.TYPES_FILE_NAME, indicator);
+    }
+
+    /**
+     * 填充模板并格式化，结果写入临时文件，在后台线程中执行，只有最终结果才在写出阶段提交
+     *
+     * @param trailer 追加在模板输出之后的内容
+     */
+    private Path renderToFile(VelocityContext ctx, String templateName, String trailer, String fileName, ProgressIndicator indicator) throws IOException {
+        Path tempFile = Files.createTempFile(tempDir, null, ".js");
+        long start = System.nanoTime();
+        if (fastFormat) {
+            // 流式填充：模板输出逐行格式化后直接写入临时文件，内存占用与文件大小无关
+            try (Writer writer = new JsFormatter(Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))) {
+                TemplateUtil.render(ctx, templateName, writer);
+                writer.write(trailer);
+            }
+            metrics.record(GenMetrics.Stage.RENDER, System.nanoTime() - start);
+        } else {
+            // IDE 格式化需要完整的 PSI，无法流式处理，格式化后立即写入临时文件
+            String text = TemplateUtil.render(ctx, templateName) + trailer;
+            long formatStart = System.nanoTime();
+            metrics.record(GenMetrics.Stage.RENDER, formatStart - start);
+            String formattedText = ReadAction.nonBlocking(() -> MyPsiUtil.createFormattedJsFile(project, fileName, text).getText())
+                .wrapProgress(indicator)
+                .executeSynchronously();
+            metrics.record(GenMetrics.Stage.FORMAT, System.nanoTime() - formatStart);
+            Files.writeString(tempFile, formattedText, StandardCharsets.UTF_8);
+        }
+        return tempFile;
+    }
+
+    /**
+     * 获取 Controller 类，需要在读操作中调用。
+     * 通过注解索引在指定范围内查找被 @RequestMapping 修饰的类，只有包含该注解的文件才会被加载为 PSI
+     */
+    @NotNull
+    public static List<PsiClass> findControllers(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+        PsiClass mappingAnno = JavaPsiFacade.getInstance(project).findClass(Constant.ANNO_REQUEST_MAPPING, GlobalSearchScope.allScope(project));
+        if (mappingAnno == null) return Collections.emptyList();
+
+        return AnnotatedElementsSearch.searchPsiClasses(mappingAnno, scope)
+            .findAll()
+            .stream()
+            // 只保留顶层类
+            .filter(clazz -> clazz.getContainingClass() == null)
+            .sorted(Comparator.comparing(clazz -> Optional.ofNullable(clazz.getQualifiedName()).orElse("")))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 由 Controller 类名得到输出文件名
+     */
+    public static String getResultFileName(String className) {
+        return className.replace("Controller", "") + "Api.js";
+    }
+
+    /**
+     * 影响生成结果的配置、模板的摘要
+     */
+    private String computeConfigHash() {
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        return StringUtil.digest(
+            pm.get(Constant.CACHE_KEY_POJO_PACKAGES),
+            pm.get(Constant.CACHE_KEY_IGNORE_DEPRECATED),
+            pm.get(Constant.CACHE_KEY_IGNORE_PARAM_TYPES),
+            pm.get(Constant.CACHE_KEY_TYPE_RULES),
+            pm.get(Constant.CACHE_KEY_SKIP_COMMENTS),
+            typesModule,
+            fastFormat,
+            TemplateUtil.getTemplateDigest(),
+            GenerationManifest.VERSION
+        );
+    }
+
+    /**
+     * 等待任务完成，期间响应取消操作
+     */
+    public static void waitFor(Future<?> future, ProgressIndicator indicator) {
+        while (true) {
+            indicator.checkCanceled();
+            try {
+                future.get(50, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException ignored) {
+                // 继续等待
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof ProcessCanceledException pce) throw pce;
+                throw new RuntimeException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * 单个 Controller 的处理结果
+     */
+    @AllArgsConstructor
+    private static class Output {
+
+        private final String fileName;
+        /** Controller 全类名 */
+        private final String controller;
+        private final ClassInfo classInfo;
+        private final List<PojoInfo> pojoList;
+        /** 涉及的所有 pojo(含传递依赖) 全类名 */
+        private final Set<String> pojoClosure;
+        /** pojo 在项目源码中的父类、接口全类名 */
+        private final Set<String> superClosure;
+        private final GenerationManifest.Entry entry;
+        /** 未变化而跳过 */
+        private final boolean skipped;
+        /** 模板填充、格式化结果所在的临时文件 */
+        private Path tempFile;
+        /** 最后一次(完成的)读操作中解析 Controller、pojo 的耗时 */
+        private long classNanos;
+        private long pojoNanos;
+
+        Output(String fileName, String controller, ClassInfo classInfo, List<PojoInfo> pojoList, Set<String> pojoClosure, Set<String> superClosure,
+               GenerationManifest.Entry entry, boolean skipped) {
+            this(fileName, controller, classInfo, pojoList, pojoClosure, superClosure, entry, skipped, null, 0, 0);
+        }
+
+    }
+
+}
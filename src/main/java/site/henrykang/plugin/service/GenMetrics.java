@@ -0,0 +1,228 @@
+package site.henrykang.plugin.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 一次批量生成的各阶段耗时统计。
+ * 生成线程通过 {@link #bind()} 绑定当前统计对象，类型解析、pojo 解析等深层调用通过 {@link #current()} 记录，
+ * 未绑定时(如 Intention)返回不记录任何数据的空对象
+ */
+public class GenMetrics {
+
+    private static final Logger LOG = Logger.getInstance(GenMetrics.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    public static final String REPORT_FILE_NAME = ".axioscodegen-report.json";
+
+    private static final GenMetrics NONE = new GenMetrics(false);
+    private static final ThreadLocal<GenMetrics> CURRENT = new ThreadLocal<>();
+
+    /** 最慢的 Controller、pojo 的展示个数 */
+    private static final int TOP_N = 5;
+
+    public enum Stage {
+        /** 查找 Controller */
+        DISCOVERY,
+        /** ClassInfo.handlePsiClass */
+        CLASS_INFO,
+        /** PojoInfo.handlePojoInfo */
+        POJO_INFO,
+        /** 模板填充，流式格式化时包含格式化耗时 */
+        RENDER,
+        /** 格式化 */
+        FORMAT,
+        /** 写出 */
+        WRITE
+    }
+
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final Map<Stage, Collection<Long>> stageNanos = new ConcurrentHashMap<>();
+    /** key：Controller 类名 */
+    private final Map<String, Long> controllerNanos = new ConcurrentHashMap<>();
+    /** key：pojo 全类名，只记录实际解析(未命中缓存)的耗时 */
+    private final Map<String, Long> pojoNanos = new ConcurrentHashMap<>();
+    private final LongAdder resolveHits = new LongAdder();
+    private final LongAdder resolveMisses = new LongAdder();
+    private final LongAdder bfsRounds = new LongAdder();
+
+    public GenMetrics() {
+        this(true);
+    }
+
+    private GenMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取当前线程绑定的统计对象
+     */
+    @NotNull
+    public static GenMetrics current() {
+        GenMetrics metrics = CURRENT.get();
+        return metrics != null ? metrics : NONE;
+    }
+
+    /**
+     * 将统计对象绑定到当前线程，需要在 finally 中调用 {@link #unbind()}
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public void record(@NotNull Stage stage, long nanos) {
+        if (!enabled) return;
+        stageNanos.computeIfAbsent(stage, k -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    public void recordController(@NotNull String name, long nanos) {
+        if (enabled) controllerNanos.merge(name, nanos, Long::sum);
+    }
+
+    public void recordPojo(@NotNull String qualifiedName, long nanos) {
+        if (enabled) pojoNanos.merge(qualifiedName, nanos, Long::sum);
+    }
+
+    public void resolveHit() {
+        if (enabled) resolveHits.increment();
+    }
+
+    public void resolveMiss() {
+        if (enabled) resolveMisses.increment();
+    }
+
+    public void bfsRound() {
+        if (enabled) bfsRounds.increment();
+    }
+
+    /**
+     * 简要的文本摘要，用于通知、命令行输出
+     */
+    @NotNull
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("total ").append(formatNanos(System.nanoTime() - startNanos));
+        for (Stage stage : Stage.values()) {
+            List<Long> values = sorted(stageNanos.get(stage));
+            if (values.isEmpty()) continue;
+            sb.append("\n").append(stage.name().toLowerCase()).append(": ").append(formatNanos(sum(values)));
+            if (values.size() > 1) {
+                sb.append(" (p50 ").append(formatNanos(percentile(values, 50)))
+                    .append(", p90 ").append(formatNanos(percentile(values, 90)))
+                    .append(", p99 ").append(formatNanos(percentile(values, 99))).append(")");
+            }
+        }
+        long hits = resolveHits.sum();
+        long total = hits + resolveMisses.sum();
+        if (total > 0) {
+            sb.append("\ntype cache: ").append(hits * 100 / total).append("% hit (").append(hits).append("/").append(total).append(")");
+        }
+        if (bfsRounds.sum() > 0) sb.append(", pojo rounds: ").append(bfsRounds.sum());
+        if (!controllerNanos.isEmpty()) sb.append("\nslowest controllers: ").append(formatTop(controllerNanos));
+        if (!pojoNanos.isEmpty()) sb.append("\nslowest POJOs: ").append(formatTop(pojoNanos));
+        return sb.toString();
+    }
+
+    /**
+     * 将完整的统计信息以 json 格式写入输出目录
+     */
+    public void writeReport(@NotNull Path savePath) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalMillis", toMillis(System.nanoTime() - startNanos));
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            List<Long> values = sorted(stageNanos.get(stage));
+            if (values.isEmpty()) continue;
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("count", values.size());
+            stat.put("totalMillis", toMillis(sum(values)));
+            stat.put("p50Millis", toMillis(percentile(values, 50)));
+            stat.put("p90Millis", toMillis(percentile(values, 90)));
+            stat.put("p99Millis", toMillis(percentile(values, 99)));
+            stat.put("maxMillis", toMillis(values.get(values.size() - 1)));
+            stages.put(stage.name().toLowerCase(), stat);
+        }
+        report.put("stages", stages);
+        report.put("typeCacheHits", resolveHits.sum());
+        report.put("typeCacheMisses", resolveMisses.sum());
+        report.put("pojoBfsRounds", bfsRounds.sum());
+        report.put("controllerMillis", toMillisMap(controllerNanos));
+        report.put("pojoMillis", toMillisMap(pojoNanos));
+        try {
+            Files.createDirectories(savePath);
+            Files.writeString(savePath.resolve(REPORT_FILE_NAME), GSON.toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Failed to write report: " + savePath, e);
+        }
+    }
+
+    private static List<Long> sorted(Collection<Long> values) {
+        if (values == null) return List.of();
+        List<Long> list = new ArrayList<>(values);
+        list.sort(null);
+        return list;
+    }
+
+    private static long sum(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * 最近秩法计算百分位数，values 需要已排序
+     */
+    private static long percentile(List<Long> values, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * values.size());
+        return values.get(Math.max(0, rank - 1));
+    }
+
+    private static String formatTop(Map<String, Long> nanosMap) {
+        return nanosMap.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(TOP_N)
+            .map(entry -> entry.getKey().substring(entry.getKey().lastIndexOf('.') + 1) + " " + formatNanos(entry.getValue()))
+            .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * 按耗时降序排列
+     */
+    private static Map<String, Long> toMillisMap(Map<String, Long> nanosMap) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        nanosMap.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .forEach(entry -> result.put(entry.getKey(), toMillis(entry.getValue())));
+        return result;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static String formatNanos(long nanos) {
+        long millis = toMillis(nanos);
+        return millis >= 1000 ? String.format("%.1fs", millis / 1000.0) : millis + "ms";
+    }
+
+}
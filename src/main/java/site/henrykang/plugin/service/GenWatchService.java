@@ -0,0 +1,294 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Alarm;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.util.MyPsiUtil;
+import site.henrykang.plugin.util.UiUtil;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 监听 java 文件的修改，找到受影响的 xxxApi.js 文件：
+ * <pre>
+ * 1. 连续的修改在 {@link #DEBOUNCE_MILLIS} 内合并为一次处理
+ * 2. 通过 {@link DependencyGraph} 找到直接或间接引用了修改的 Controller、pojo 的输出文件，
+ *    以及与已生成的 Controller 位于同一包下的新 Controller
+ * 3. 复用 {@link FileGenerator} 以并行度 1 增量生成，同一时间只有一次生成在运行
+ * </pre>
+ * 只在开启监听模式时响应已保存到磁盘的修改，编辑中未保存的代码不会触发生成；未开启时不做任何查找，
+ * 由增量生成根据生成清单跳过未变化的文件
+ */
+@Service(Service.Level.PROJECT)
+public final class GenWatchService implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(GenWatchService.class);
+
+    /** 合并连续修改的等待时间 */
+    private static final int DEBOUNCE_MILLIS = 1500;
+
+    private final Project project;
+    private final MergingUpdateQueue queue;
+    /** 等待处理的已修改的 java 文件 */
+    private final Set<VirtualFile> pendingFiles = ConcurrentHashMap.newKeySet();
+    /** 是否有生成任务在运行 */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public GenWatchService(@NotNull Project project) {
+        this.project = project;
+        this.queue = new MergingUpdateQueue(Constant.PLUGIN_NAME + ".watch", DEBOUNCE_MILLIS, true, null, this, null, Alarm.ThreadToUse.POOLED_THREAD);
+    }
+
+    public static GenWatchService getInstance(@NotNull Project project) {
+        return project.getService(GenWatchService.class);
+    }
+
+    /**
+     * 是否开启监听模式
+     */
+    public boolean isWatchEnabled() {
+        return Boolean.parseBoolean(PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_WATCH));
+    }
+
+    /**
+     * 记录修改的 java 文件，延迟处理
+     */
+    public void filesChanged(@NotNull Collection<VirtualFile> files) {
+        if (files.isEmpty() || !this.isWatchEnabled()) return;
+        pendingFiles.addAll(files);
+        this.scheduleFlush();
+    }
+
+    /**
+     * java 文件被删除或移动前调用，清理其中的 Controller 在依赖图、生成清单、解析缓存中的记录，
+     * 被删除的 Controller 不再被监听、不再计入 types.js。只按路径与全类名比较，不访问 PSI
+     *
+     * @param paths 被删除、移动的 java 文件路径
+     */
+    public void filesRemoved(@NotNull Collection<String> paths) {
+        if (paths.isEmpty()) return;
+        DependencyGraph graph = DependencyGraph.getInstance(project);
+        // 输出文件绝对路径 -> Controller 全类名
+        Map<String, String> removedMap = new TreeMap<>();
+        graph.getControllers().forEach((outputPath, controller) -> {
+            String suffix = "/" + controller.replace('.', '/') + ".java";
+            if (paths.stream().anyMatch(path -> path.endsWith(suffix))) removedMap.put(outputPath, controller);
+        });
+        if (removedMap.isEmpty()) return;
+        removedMap.keySet().forEach(graph::remove);
+        ModelStore.getInstance(project).removeClasses(removedMap.values());
+        // 生成清单保存在输出目录中，不在写操作中读写磁盘
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            Map<Path, List<String>> dirMap = new LinkedHashMap<>();
+            removedMap.keySet().forEach(outputPath -> {
+                Path path = Path.of(outputPath);
+                dirMap.computeIfAbsent(path.getParent(), k -> new ArrayList<>()).add(path.getFileName().toString());
+            });
+            dirMap.forEach((dir, fileNames) -> {
+                GenerationManifest manifest = GenerationManifest.load(dir);
+                if (manifest.getEntries().keySet().removeAll(fileNames)) manifest.save(dir);
+            });
+        });
+    }
+
+    private void scheduleFlush() {
+        // 相同 identity 的更新会被合并，等待时间内的多次修改只处理一次
+        queue.queue(Update.create(this, this::flush));
+    }
+
+    private void flush() {
+        if (project.isDisposed() || pendingFiles.isEmpty()) return;
+        // 上一次生成未结束时，等待下一个周期
+        if (!running.compareAndSet(false, true)) {
+            this.scheduleFlush();
+            return;
+        }
+        List<VirtualFile> files = new ArrayList<>(pendingFiles);
+        files.forEach(pendingFiles::remove);
+
+        Map<String, String> affectedMap;
+        try {
+            affectedMap = ReadAction.nonBlocking(() -> this.findAffectedOutputs(files))
+                .inSmartMode(project)
+                .expireWith(this)
+                .executeSynchronously();
+        } catch (ProcessCanceledException ex) {
+            running.set(false);
+            return;
+        } catch (Exception ex) {
+            LOG.warn("Failed to find affected files", ex);
+            running.set(false);
+            return;
+        }
+        // 等待期间关闭了监听模式
+        if (affectedMap.isEmpty() || !this.isWatchEnabled()) {
+            this.finished();
+            return;
+        }
+        // 后台任务提交前失败时不会回调 onFinished，需要在这里结束，否则之后的修改不会再触发生成
+        try {
+            this.regenerate(affectedMap);
+        } catch (ProcessCanceledException ex) {
+            this.finished();
+        } catch (Exception ex) {
+            LOG.warn("Failed to regenerate files", ex);
+            this.finished();
+        }
+    }
+
+    /**
+     * 在后台任务中重新生成指定的文件，按输出目录分批调用 {@link FileGenerator}
+     *
+     * @param outputMap 输出文件绝对路径 -> Controller 全类名
+     */
+    private void regenerate(Map<String, String> outputMap) {
+        Map<Path, List<String>> dirMap = new LinkedHashMap<>();
+        outputMap.forEach((outputPath, controller) -> dirMap.computeIfAbsent(Path.of(outputPath).getParent(), k -> new ArrayList<>()).add(controller));
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        boolean typesModule = Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_TYPES_MODULE));
+        boolean fastFormat = Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_FAST_FORMAT));
+        boolean writeReport = Boolean.parseBoolean(pm.get(Constant.CACHE_KEY_WRITE_REPORT));
+        int[] counts = new int[3]; // all, written, failed
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Regenerating axios code", true) {
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                DependencyGraph graph = DependencyGraph.getInstance(project);
+                for (Map.Entry<Path, List<String>> entry : dirMap.entrySet()) {
+                    Map<String, PsiClass> classMap = ReadAction.nonBlocking(() -> findClasses(entry.getValue()))
+                        .inSmartMode(project)
+                        .wrapProgress(indicator)
+                        .executeSynchronously();
+                    // Controller 已被删除的文件不再跟踪
+                    outputMap.forEach((outputPath, controller) -> {
+                        if (Path.of(outputPath).getParent().equals(entry.getKey()) && !classMap.containsKey(controller)) graph.remove(outputPath);
+                    });
+                    if (classMap.isEmpty()) continue;
+                    List<PsiClass> psiClassList = new ArrayList<>(classMap.values());
+                    FileGenerator generator = new FileGenerator(project, entry.getKey(), 1)
+                        .setIncremental(true)
+                        .setTypesModule(typesModule)
+                        .setFastFormat(fastFormat)
+                        .setWriteReport(writeReport);
+                    generator.generate(psiClassList, indicator);
+                    counts[0] += generator.getAllCnt();
+                    counts[1] += generator.getWrittenCnt();
+                    counts[2] += generator.getErrCnt();
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (counts[2] > 0) {
+                    UiUtil.showNotification(project, "Regenerate: failed[" + counts[2] + "/" + counts[0] + "], see idea.log for details", NotificationType.WARNING, TimeUnit.SECONDS.toMillis(5));
+                } else if (counts[1] > 0) {
+                    UiUtil.showNotification(project, "Regenerate: written[" + counts[1] + "], unchanged[" + (counts[0] - counts[1]) + "]", NotificationType.INFORMATION, TimeUnit.SECONDS.toMillis(3));
+                }
+            }
+
+            @Override
+            public void onFinished() {
+                // 处理生成期间产生的修改
+                GenWatchService.this.finished();
+            }
+        });
+    }
+
+    private void finished() {
+        running.set(false);
+        // 生成期间产生的修改
+        if (!pendingFiles.isEmpty()) this.scheduleFlush();
+    }
+
+    /**
+     * 查找受修改影响的输出文件，需要在读操作中调用
+     *
+     * @return 输出文件绝对路径 -> Controller 全类名
+     */
+    private Map<String, String> findAffectedOutputs(List<VirtualFile> files) {
+        DependencyGraph graph = DependencyGraph.getInstance(project);
+        // 已生成的 Controller 所在包 -> 输出目录
+        Map<String, Path> packageDirMap = new HashMap<>();
+        graph.getControllers().forEach((outputPath, controller) -> {
+            if (controller.contains(".")) packageDirMap.putIfAbsent(controller.substring(0, controller.lastIndexOf('.')), Path.of(outputPath).getParent());
+        });
+
+        // 修改文件中的所有类，以及其中的新 Controller
+        Set<String> changedSet = new HashSet<>();
+        Map<String, String> resultMap = new TreeMap<>();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (VirtualFile file : files) {
+            if (!file.isValid() || !(psiManager.findFile(file) instanceof PsiJavaFile javaFile)) continue;
+            for (PsiClass psiClass : javaFile.getClasses()) {
+                collectClassNames(psiClass, changedSet);
+                Path dir = packageDirMap.get(MyPsiUtil.getPackageName(psiClass));
+                if (dir != null && psiClass.getQualifiedName() != null && psiClass.getName() != null
+                    && psiClass.hasAnnotation(Constant.ANNO_REQUEST_MAPPING)) {
+                    resultMap.put(dir.resolve(FileGenerator.getResultFileName(psiClass.getName())).toString(), psiClass.getQualifiedName());
+                }
+            }
+        }
+        // 依赖图中引用了修改的类的文件
+        resultMap.putAll(graph.findAffectedOutputs(changedSet));
+        return resultMap;
+    }
+
+    /**
+     * 按全类名查找类，需要在读操作中调用
+     */
+    private Map<String, PsiClass> findClasses(Collection<String> qualifiedNames) {
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        Map<String, PsiClass> result = new TreeMap<>();
+        for (String qualifiedName : qualifiedNames) {
+            PsiClass psiClass = facade.findClass(qualifiedName, scope);
+            if (psiClass != null) result.put(qualifiedName, psiClass);
+        }
+        return result;
+    }
+
+    private static void collectClassNames(PsiClass psiClass, Set<String> nameSet) {
+        if (psiClass.getQualifiedName() != null) nameSet.add(psiClass.getQualifiedName());
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectClassNames(innerClass, nameSet);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pendingFiles.clear();
+    }
+
+}
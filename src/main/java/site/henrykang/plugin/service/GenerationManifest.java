@@ -0,0 +1,189 @@
+package site.henrykang.plugin.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.ProjectAndLibrariesScope;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 生成清单，保存在输出目录下，记录每个输出文件对应的 Controller 及其涉及的所有 pojo、枚举等项目源码类型的修改标记。
+ * 再次生成时，只有 Controller 自身或任一涉及的类型发生变化的文件才需要重新解析、写出
+ */
+@Data
+public class GenerationManifest {
+
+    private static final Logger LOG = Logger.getInstance(GenerationManifest.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    public static final String FILE_NAME = ".axioscodegen.json";
+    /** 清单格式版本，记录的内容发生变化时修改，计入配置摘要使旧清单失效 */
+    public static final int VERSION = 2;
+
+    /** 配置、模板的摘要，发生变化时所有文件都需要重新生成 */
+    private String configHash = "";
+    /** key：输出文件名 */
+    private Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Data
+    @Accessors(chain = true)
+    public static class Entry {
+
+        /** Controller 全类名 */
+        private String controller;
+        /** Controller 所在文件的修改标记 */
+        private String stamp;
+        /** 涉及的 pojo(含传递依赖) 全类名 -> 所在文件的修改标记 */
+        private Map<String, String> pojoStamps = new HashMap<>();
+        /** pojo 在项目源码中的父类型全类名 -> 所在文件的修改标记，父类型的字段变化同样影响生成结果 */
+        private Map<String, String> superStamps = new HashMap<>();
+        /** 方法签名、pojo 属性引用的其他项目源码类型(枚举等)全类名 -> 所在文件的修改标记，如枚举常量会输出到注释中 */
+        private Map<String, String> typeStamps = new HashMap<>();
+
+    }
+
+    /**
+     * 读取清单，不存在或解析失败时返回空清单
+     */
+    @NotNull
+    public static GenerationManifest load(@NotNull Path savePath) {
+        Path path = savePath.resolve(FILE_NAME);
+        if (Files.isRegularFile(path)) {
+            try {
+                GenerationManifest manifest = GSON.fromJson(Files.readString(path, StandardCharsets.UTF_8), GenerationManifest.class);
+                if (manifest != null) {
+                    manifest.entries = new ConcurrentHashMap<>(Objects.requireNonNullElse(manifest.entries, Map.of()));
+                    return manifest;
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to read manifest: " + path, e);
+            }
+        }
+        return new GenerationManifest();
+    }
+
+    public void save(@NotNull Path savePath) {
+        try {
+            Files.createDirectories(savePath);
+            Files.writeString(savePath.resolve(FILE_NAME), GSON.toJson(this), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Failed to write manifest: " + savePath, e);
+        }
+    }
+
+    /**
+     * 判断输出文件是否为最新，需要在读操作中调用
+     */
+    public boolean isUpToDate(@NotNull Path savePath, @NotNull String fileName, @NotNull PsiClass psiClass) {
+        Entry entry = entries.get(fileName);
+        if (entry == null || !Files.exists(savePath.resolve(fileName))) return false;
+        if (!Objects.equals(entry.controller, psiClass.getQualifiedName())) return false;
+        String stamp = stampOf(psiClass);
+        if (stamp == null || !stamp.equals(entry.stamp)) return false;
+
+        Project project = psiClass.getProject();
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = new ProjectAndLibrariesScope(project);
+        return isUnchanged(entry.pojoStamps, facade, scope)
+            && isUnchanged(entry.superStamps, facade, scope)
+            && isUnchanged(entry.typeStamps, facade, scope);
+    }
+
+    private static boolean isUnchanged(Map<String, String> stamps, JavaPsiFacade facade, GlobalSearchScope scope) {
+        for (Map.Entry<String, String> stamp : stamps.entrySet()) {
+            PsiClass psiClass = facade.findClass(stamp.getKey(), scope);
+            if (psiClass == null || !Objects.equals(stampOf(psiClass), stamp.getValue())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 创建清单条目，需要在读操作中调用
+     */
+    @Nullable
+    public static Entry createEntry(@NotNull PsiClass psiClass, @NotNull Collection<String> pojoQualifiedNames) {
+        String stamp = stampOf(psiClass);
+        if (stamp == null) return null;
+        Project project = psiClass.getProject();
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = new ProjectAndLibrariesScope(project);
+        Map<String, String> pojoStamps = new HashMap<>();
+        Map<String, String> superStamps = new HashMap<>();
+        Set<PsiClass> typeSet = new HashSet<>();
+        for (PsiMethod psiMethod : psiClass.getMethods()) {
+            if (psiMethod.getReturnType() != null) PojoInfo.collectProjectTypes(psiMethod.getReturnType(), typeSet);
+            for (PsiParameter psiParameter : psiMethod.getParameterList().getParameters()) {
+                PojoInfo.collectProjectTypes(psiParameter.getType(), typeSet);
+            }
+        }
+        for (String qualifiedName : pojoQualifiedNames) {
+            PsiClass pojoClass = facade.findClass(qualifiedName, scope);
+            String pojoStamp = pojoClass == null ? null : stampOf(pojoClass);
+            if (pojoStamp == null || !collectSuperStamps(pojoClass, superStamps)) return null;
+            pojoStamps.put(qualifiedName, pojoStamp);
+            for (PsiField psiField : pojoClass.getAllFields()) {
+                PojoInfo.collectProjectTypes(psiField.getType(), typeSet);
+            }
+        }
+        Map<String, String> typeStamps = new HashMap<>();
+        for (PsiClass typeClass : typeSet) {
+            String qualifiedName = typeClass.getQualifiedName();
+            if (typeClass == psiClass || pojoStamps.containsKey(qualifiedName) || superStamps.containsKey(qualifiedName)) continue;
+            String typeStamp = stampOf(typeClass);
+            if (typeStamp == null) return null;
+            typeStamps.put(qualifiedName, typeStamp);
+        }
+        return new Entry().setController(psiClass.getQualifiedName()).setStamp(stamp)
+            .setPojoStamps(pojoStamps).setSuperStamps(superStamps).setTypeStamps(typeStamps);
+    }
+
+    /**
+     * 记录 pojo 所有位于项目源码中的父类、接口的修改标记，存在未保存的修改时返回 false
+     */
+    private static boolean collectSuperStamps(PsiClass pojoClass, Map<String, String> superStamps) {
+        for (PsiClass superClass : PojoInfo.findProjectSupers(pojoClass)) {
+            String stamp = stampOf(superClass);
+            if (stamp == null) return false;
+            superStamps.put(superClass.getQualifiedName(), stamp);
+        }
+        return true;
+    }
+
+    /**
+     * 类所在文件的修改标记：磁盘修改时间 + 文件长度，存在未保存的修改时返回 null
+     */
+    @Nullable
+    public static String stampOf(@NotNull PsiClass psiClass) {
+        PsiFile psiFile = psiClass.getContainingFile();
+        VirtualFile virtualFile = psiFile == null ? null : psiFile.getVirtualFile();
+        if (virtualFile == null || FileDocumentManager.getInstance().isFileModified(virtualFile)) return null;
+        return virtualFile.getTimeStamp() + ":" + virtualFile.getLength();
+    }
+
+}
@@ -1,21 +1,27 @@
 package site.henrykang.plugin.service;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.Pair;
 import com.intellij.psi.*;
-import com.intellij.psi.search.ProjectAndLibrariesScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
 import lombok.Data;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import site.henrykang.plugin.entity.Constant;
-import site.henrykang.plugin.util.StringUtil;
+import site.henrykang.plugin.util.TypeRules;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 将 PsiType 映射为 JS 类型：
@@ -26,37 +32,41 @@ import java.util.concurrent.TimeUnit;
  * 表示映射：{@code Object<K,T>}
  * 其他：{@code File}
  * </pre>
+ * 用户配置的类型规则 {@link TypeRules} 优先于以上映射
  */
 @Data
 @Service(Service.Level.PROJECT) // 当项目关闭、插件卸载时，会自动调用 dispose
 public final class JsDocTypeResolver implements Disposable {
 
     /**
-     * 缓存映射结果
+     * 缓存映射结果，挂在 project 上，Java 代码、项目依赖或类型规则发生变化时自动失效
      * key：PsiType.getCanonicalText()
      * value：A-映射结果，B-涉及的pojo
      */
-    private final Cache<String, Pair<String, Set<String>>> mappingCache = CacheBuilder.newBuilder()
-        .maximumSize(1000)
-        .expireAfterAccess(10, TimeUnit.MINUTES)
-        .build();
+    private static final Key<CachedValue<Map<String, Pair<String, Set<String>>>>> MAPPING_CACHE_KEY = Key.create(Constant.PLUGIN_NAME + ".mappingCache");
 
-    /** pojo 类包集合 */
-    private List<String> pojoPackageList = Collections.emptyList();
-    /** 保存一些祖先 psiClass 引用，例如 Collection、Map，用于 isInheritor() 方法判断使用 */
-    private Map<String, SmartPsiElementPointer<PsiClass>> ancestralPsiClassMap;
+    private final Project project;
+    /**
+     * 祖先类全类名，例如 Collection、Map，继承自这些类的类型会按祖先类处理。
+     * 按顺序匹配，子类型需要排在父类型之前
+     */
+    private static final List<String> ANCESTRAL_QUALIFIED_NAMES = List.of(
+        "java.util.Collection",
+        "java.util.Map",
+        "java.util.UUID",
+        "java.util.Optional",
+        "java.time.temporal.Temporal"
+    );
+
+    /** 缓存每个 PsiClass 匹配到的祖先类全类名，未匹配时为 ""，Java 代码或项目依赖发生变化时自动失效 */
+    private static final Key<CachedValue<String>> ANCESTRAL_CACHE_KEY = Key.create(Constant.PLUGIN_NAME + ".ancestral");
+
+    /** 类型规则、pojo 包判断 */
+    private final TypeRuleManager typeRuleManager;
 
     public JsDocTypeResolver(@NotNull Project project) {
-        String pojoPackages = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_POJO_PACKAGES);
-        this.initPojoPackageList(pojoPackages);
-        // 监听 pojo 包路径配置更改，清空缓存
-        PropertiesManager.getInstance(project).addObserver(Constant.CACHE_KEY_POJO_PACKAGES, (oldVal, newVal) -> {
-            if (!Objects.equals(oldVal, newVal)) {
-                this.initPojoPackageList(newVal);
-                this.invalidateCache();
-            }
-        });
-        this.initSomeAncestralPsiCLass(project);
+        this.project = project;
+        this.typeRuleManager = TypeRuleManager.getInstance(project);
     }
 
     public static JsDocTypeResolver getInstance(@NotNull Project project) {
@@ -64,33 +74,16 @@ public final class JsDocTypeResolver implements Disposable {
     }
 
     /**
-     * 初始化 pojo 包列表
+     * 获取映射结果缓存，缓存依赖 Java PSI、项目依赖和类型规则的修改计数，发生变化时会重新创建。
+     * pojo 包路径、类型规则配置更改时，规则重新编译后才递增修改计数，不会用旧规则填充新缓存
      */
-    private void initPojoPackageList(String pojoPackages) {
-        this.pojoPackageList = Collections.emptyList();
-        if (StringUtil.isNotBlank(pojoPackages)) {
-            this.pojoPackageList = Arrays.stream(pojoPackages.split(","))
-                .filter(StringUtil::isNotBlank)
-                .map(String::trim)
-                .toList();
-        }
-    }
-
-    /**
-     * 加载一些 psiClass 信息
-     */
-    private void initSomeAncestralPsiCLass(@NotNull Project project) {
-        List<String> list = List.of("java.util.Collection", "java.util.Map", "java.util.UUID");
-        this.ancestralPsiClassMap = new HashMap<>(list.size());
-        // 智能指针，自动追踪 psi 元素
-        SmartPointerManager spm = SmartPointerManager.getInstance(project);
-        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
-        ProjectAndLibrariesScope searchScope = new ProjectAndLibrariesScope(project);
-
-        list.forEach(qualifiedName -> {
-            PsiClass p = facade.findClass(qualifiedName, searchScope);
-            if (p != null) this.ancestralPsiClassMap.put(qualifiedName, spm.createSmartPsiElementPointer(p));
-        });
+    private Map<String, Pair<String, Set<String>>> getMappingCache() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, MAPPING_CACHE_KEY, () -> CachedValueProvider.Result.create(
+            new ConcurrentHashMap<>(),
+            PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+            ProjectRootManager.getInstance(project),
+            typeRuleManager.getModificationTracker()
+        ), false);
     }
 
     /**
@@ -99,13 +92,21 @@ public final class JsDocTypeResolver implements Disposable {
     @NotNull
     public Pair<String, Set<String>> resolve(@NotNull PsiType type) {
         // 尝试从缓存中获取
-        Pair<String, Set<String>> cache = this.mappingCache.getIfPresent(type.getCanonicalText());
-        if (cache != null) return cache;
+        Map<String, Pair<String, Set<String>>> mappingCache = this.getMappingCache();
+        String key = type.getCanonicalText();
+        Pair<String, Set<String>> cache = mappingCache.get(key);
+        if (cache != null) {
+            GenMetrics.current().resolveHit();
+            return cache;
+        }
+        GenMetrics.current().resolveMiss();
         // 处理
         Set<String> pojoNameSet = new HashSet<>();
         String jsType = this.resolveInternal(type, pojoNameSet);
-        if (pojoNameSet.isEmpty()) pojoNameSet = Collections.emptySet();
-        return Pair.pair(jsType, Collections.unmodifiableSet(pojoNameSet));
+        // 缓存不可变的结果，可被多个线程共享
+        Pair<String, Set<String>> result = Pair.pair(jsType, Set.copyOf(pojoNameSet));
+        mappingCache.put(key, result);
+        return result;
     }
 
     /**
@@ -121,6 +122,8 @@ public final class JsDocTypeResolver implements Disposable {
      * </pre>
      */
     private String resolveInternal(@Nullable PsiType type, Set<String> pojoNameSet) {
+        // 响应后台任务的取消操作
+        ProgressManager.checkCanceled();
         String resultStr = "Object";
         // 处理未指定泛型类型的泛型类时，可能为 null
         if (type == null) {
@@ -142,6 +145,8 @@ public final class JsDocTypeResolver implements Disposable {
         else if (type instanceof PsiClassType typed) {
             // 获取对应的 psiClass
             PsiClass classed = typed.resolve();
+            // 用户配置的类型规则优先，ignore 只作用于方法参数，这里按默认规则处理
+            String ruleType = classed == null || classed instanceof PsiTypeParameter ? null : this.matchTypeRule(classed);
             if (classed == null) {
                 resultStr = "Object";
             }
@@ -149,6 +154,9 @@ public final class JsDocTypeResolver implements Disposable {
             else if (classed instanceof PsiTypeParameter) {
                 resultStr = Optional.ofNullable(classed.getName()).orElse("Object");
             }
+            else if (ruleType != null) {
+                resultStr = ruleType;
+            }
             // 如果是枚举，则查找被 @JsonValue 修饰的属性的类型，没找到则默认返回 string
             else if (classed.isEnum()) {
                 resultStr = this.mapEnum(classed, pojoNameSet);
@@ -156,7 +164,7 @@ public final class JsDocTypeResolver implements Disposable {
                 // 获取类名
                 String shortName = Optional.ofNullable(classed.getName()).orElse("");
                 String qualifiedName = Optional.ofNullable(classed.getQualifiedName()).orElse("");
-                boolean isNeedCollect = this.isNeedCollectPojoInfo(qualifiedName);
+                boolean isNeedCollect = typeRuleManager.isPojo(qualifiedName);
                 if (isNeedCollect) {
                     pojoNameSet.add(qualifiedName);
                 }
@@ -173,43 +181,62 @@ public final class JsDocTypeResolver implements Disposable {
                 }
                 String ancestralQualifiedName = this.findAncestralQualifiedName(classed);
                 qualifiedName = ancestralQualifiedName != null ? ancestralQualifiedName : qualifiedName;
-                resultStr = switch (qualifiedName) {
-                    // 基本类型的包装类
-                    case "java.lang.String" -> "string";
-                    case "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double" -> "number";
-                    case "java.lang.Boolean" -> "boolean";
-                    // UUID 当作 string
-                    case "java.util.UUID" -> "string";
-                    // 日期时间相关，均当作 string
-                    case "java.time.LocalDate", "java.time.LocalTime", "java.time.LocalDateTime", "java.util.Date", "java.util.Time" -> "string";
-                    // MultipartFile
-                    case "org.springframework.web.multipart.MultipartFile" -> "File";
-                    // 集合类型
-                    case "java.util.Collection" -> "Array<" + String.join(", ", typeArgs) + ">";
-                    case "java.util.Map" -> "Object<" + String.join(", ", typeArgs) + ">";
-                    // 其他类型，直接取 shortName + 泛型(若有)
-                    default -> (isNeedCollect ? shortName : "Object") + (typeArgs.isEmpty() ? "" : "<" + String.join(", ", typeArgs) + ">");
-                };
+                resultStr = buildJsType(qualifiedName, shortName, isNeedCollect, typeArgs);
             }
         }
-        // 缓存
-        this.mappingCache.put(type.getCanonicalText(), Pair.pair(resultStr, Collections.unmodifiableSet(pojoNameSet)));
         return resultStr;
     }
 
     /**
-     * 使用 PsiClass.isInheritor() 判断继承关系，将一些包名替换为父类包名，例如 List、Set 替换为 Collection，
-     * 若有匹配则返回父类全类名，无匹配则返回 null
+     * 由类型信息拼接 jsType，不依赖 PSI
+     *
+     * @param qualifiedName 全类名，集合、映射等类型为其祖先类的全类名
+     * @param isNeedCollect 是否为需要收集的 pojo
+     * @param typeArgs      已解析的泛型参数 jsType
+     */
+    static String buildJsType(String qualifiedName, String shortName, boolean isNeedCollect, List<String> typeArgs) {
+        return switch (qualifiedName) {
+            // 基本类型的包装类
+            case "java.lang.String" -> "string";
+            case "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double" -> "number";
+            case "java.lang.Boolean" -> "boolean";
+            // UUID 当作 string
+            case "java.util.UUID" -> "string";
+            // 日期时间相关，均当作 string
+            case "java.time.LocalDate", "java.time.LocalTime", "java.time.LocalDateTime", "java.util.Date", "java.util.Time", "java.time.temporal.Temporal" -> "string";
+            // MultipartFile
+            case "org.springframework.web.multipart.MultipartFile" -> "File";
+            // Optional 取泛型参数类型
+            case "java.util.Optional" -> typeArgs.isEmpty() ? "Object" : typeArgs.get(0);
+            // 集合类型
+            case "java.util.Collection" -> "Array<" + String.join(", ", typeArgs) + ">";
+            case "java.util.Map" -> "Object<" + String.join(", ", typeArgs) + ">";
+            // 其他类型，直接取 shortName + 泛型(若有)
+            default -> (isNeedCollect ? shortName : "Object") + (typeArgs.isEmpty() ? "" : "<" + String.join(", ", typeArgs) + ">");
+        };
+    }
+
+    /**
+     * 使用 InheritanceUtil.isInheritor() 判断继承关系，将一些包名替换为父类包名，例如 List、Set 替换为 Collection，
+     * 若有匹配则返回父类全类名，无匹配则返回 null。
+     * 结果按 PsiClass 缓存，同一个类的不同泛型实例只需遍历一次继承树
      */
     private String findAncestralQualifiedName(PsiClass psiClass) {
-        for (Map.Entry<String, SmartPsiElementPointer<PsiClass>> entry : ancestralPsiClassMap.entrySet()) {
-            SmartPsiElementPointer<PsiClass> pointer = entry.getValue();
-            if (pointer.getElement() == null) continue;
-            if (psiClass.isInheritor(pointer.getElement(), true)) {
-                return entry.getKey();
+        String ancestral = CachedValuesManager.getCachedValue(psiClass, ANCESTRAL_CACHE_KEY, () -> CachedValueProvider.Result.create(
+            classifyAncestral(psiClass),
+            PsiModificationTracker.getInstance(psiClass.getProject()).forLanguage(JavaLanguage.INSTANCE),
+            ProjectRootManager.getInstance(psiClass.getProject())
+        ));
+        return ancestral.isEmpty() ? null : ancestral;
+    }
+
+    private static String classifyAncestral(PsiClass psiClass) {
+        for (String qualifiedName : ANCESTRAL_QUALIFIED_NAMES) {
+            if (InheritanceUtil.isInheritor(psiClass, true, qualifiedName)) {
+                return qualifiedName;
             }
         }
-        return null;
+        return "";
     }
 
     /**
@@ -237,23 +264,19 @@ public final class JsDocTypeResolver implements Disposable {
     }
 
     /**
-     * 是否收集该 pojo 信息
+     * 匹配用户配置的类型规则
+     *
+     * @return js 类型，没有匹配或为 ignore 时返回 null
      */
-    private boolean isNeedCollectPojoInfo(String qualifiedName) {
-        if (StringUtil.isBlank(qualifiedName)) return false;
-        if (qualifiedName.startsWith("java.")) return false;
-        if (pojoPackageList.isEmpty()) return false;
-        return pojoPackageList.stream().anyMatch(qualifiedName::startsWith);
-    }
-
-    public void invalidateCache() {
-        this.mappingCache.invalidateAll();
+    private String matchTypeRule(PsiClass psiClass) {
+        String target = typeRuleManager.classify(psiClass);
+        return target == null || TypeRules.IGNORE.equals(target) ? null : target;
     }
 
     @Override
     public void dispose() {
-        this.invalidateCache();
-        ancestralPsiClassMap.clear();
+        // 缓存挂在 project 上，需要移除，否则插件无法动态卸载
+        project.putUserData(MAPPING_CACHE_KEY, null);
     }
 
 }
@@ -0,0 +1,589 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManagerCore;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+import site.henrykang.plugin.util.StringUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 持久化的模型缓存，以二进制格式保存在 IDE 系统目录下，IDE 重启后首次生成不需要重新解析未修改的 Controller、pojo：
+ * <pre>
+ * 1. 每个条目记录依赖的源码文件及其内容摘要、相关配置的摘要，读取时逐一校验，任一不一致即失效并重新解析
+ * 2. Controller 依赖自身所在文件，以及方法签名中引用的类型及其父类型所在的文件(类型的泛型参数、是否为枚举、祖先类型等会影响 jsType)
+ * 3. pojo 依赖自身及父类所在的文件，以及属性类型引用的类型及其父类型所在的文件
+ * 4. 文件头记录格式版本、插件版本，不一致时整个文件失效；首次使用时才读取，每次生成结束后有更新时写出一次
+ * </pre>
+ * 只校验项目源码中的文件，JDK、依赖库中的类型不参与校验；存在未保存修改的文件不会被缓存
+ */
+@Service(Service.Level.PROJECT)
+public final class ModelStore implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(ModelStore.class);
+
+    private static final int MAGIC = 0x41434753;
+    /** 二进制格式版本，实体类字段变化时需要递增 */
+    private static final int FORMAT_VERSION = 1;
+
+    private final Project project;
+    private final Path storePath;
+    private volatile boolean loaded;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    /** key：Controller 全类名 */
+    private final Map<String, Entry<ClassInfo>> classEntries = new ConcurrentHashMap<>();
+    /** key：pojo 全类名，value：A-解析结果，不是 pojo 时为 null，B-属性涉及的 pojo 全类名集合 */
+    private final Map<String, Entry<Pair<PojoInfo, Set<String>>>> pojoEntries = new ConcurrentHashMap<>();
+    /** 文件内容摘要，key：文件 url，value：A-修改标记，B-摘要，文件未修改时不需要重新读取 */
+    private final Map<String, Pair<String, String>> hashMemo = new ConcurrentHashMap<>();
+
+    static final class Entry<T> {
+
+        /** 相关配置的摘要 */
+        final String configHash;
+        /** 依赖的文件 url -> 内容摘要 */
+        final Map<String, String> fileHashes;
+        final T value;
+
+        Entry(String configHash, Map<String, String> fileHashes, T value) {
+            this.configHash = configHash;
+            this.fileHashes = fileHashes;
+            this.value = value;
+        }
+
+    }
+
+    public ModelStore(@NotNull Project project) {
+        this.project = project;
+        this.storePath = Path.of(PathManager.getSystemPath(), Constant.PLUGIN_NAME, "model", project.getLocationHash() + ".bin");
+    }
+
+    public static ModelStore getInstance(@NotNull Project project) {
+        return project.getService(ModelStore.class);
+    }
+
+    /**
+     * 获取 Controller 解析结果，缓存有效时直接返回，否则使用 resolver 解析并缓存，需要在读操作中调用
+     */
+    @NotNull
+    public ClassInfo getClassInfo(@NotNull PsiClass psiClass, @NotNull Supplier<ClassInfo> resolver) {
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName == null) return resolver.get();
+        this.ensureLoaded();
+        String configHash = computeConfigHash();
+        Entry<ClassInfo> entry = classEntries.get(qualifiedName);
+        if (entry != null && this.isValid(entry, configHash)) return entry.value;
+
+        ClassInfo classInfo = resolver.get();
+        Set<VirtualFile> files = new HashSet<>();
+        this.addFile(psiClass, files);
+        for (PsiMethod psiMethod : psiClass.getMethods()) {
+            if (psiMethod.getReturnType() != null) this.collectTypeFiles(psiMethod.getReturnType(), files);
+            for (PsiParameter psiParameter : psiMethod.getParameterList().getParameters()) {
+                this.collectTypeFiles(psiParameter.getType(), files);
+            }
+        }
+        this.put(classEntries, qualifiedName, configHash, files, classInfo);
+        return classInfo;
+    }
+
+    /**
+     * 获取 pojo 解析结果，缓存有效时直接返回，否则使用 resolver 解析并缓存，需要在读操作中调用
+     *
+     * @param psiClass 为 null 时直接调用 resolver，不缓存
+     */
+    @NotNull
+    public Pair<PojoInfo, Set<String>> getPojoInfo(@NotNull String qualifiedName, @Nullable PsiClass psiClass,
+                                                   @NotNull Function<PsiClass, Pair<PojoInfo, Set<String>>> resolver) {
+        if (psiClass == null) return resolver.apply(null);
+        this.ensureLoaded();
+        String configHash = computeConfigHash();
+        Entry<Pair<PojoInfo, Set<String>>> entry = pojoEntries.get(qualifiedName);
+        if (entry != null && this.isValid(entry, configHash)) return entry.value;
+
+        Pair<PojoInfo, Set<String>> pair = resolver.apply(psiClass);
+        Set<VirtualFile> files = new HashSet<>();
+        Set<PsiClass> visited = new HashSet<>();
+        for (PsiClass current = psiClass; current != null && visited.add(current); current = current.getSuperClass()) {
+            this.addFile(current, files);
+        }
+        for (PsiField psiField : psiClass.getAllFields()) {
+            this.collectTypeFiles(psiField.getType(), files);
+        }
+        this.put(pojoEntries, qualifiedName, configHash, files, pair);
+        return pair;
+    }
+
+    /**
+     * 移除 Controller 的解析结果，Controller 所在文件被删除、移动时调用。尚未读取持久化文件时不需要处理，
+     * 读取后依赖的文件已不存在的条目会在校验时失效，并在写出时移除
+     */
+    public void removeClasses(@NotNull Collection<String> qualifiedNames) {
+        if (!loaded) return;
+        boolean removed = false;
+        for (String qualifiedName : qualifiedNames) {
+            removed |= classEntries.remove(qualifiedName) != null;
+        }
+        if (removed) dirty.set(true);
+    }
+
+    /**
+     * 影响解析结果的配置的摘要
+     */
+    private String computeConfigHash() {
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        return StringUtil.digest(
+            pm.get(Constant.CACHE_KEY_POJO_PACKAGES),
+            pm.get(Constant.CACHE_KEY_IGNORE_DEPRECATED),
+            pm.get(Constant.CACHE_KEY_IGNORE_PARAM_TYPES),
+            pm.get(Constant.CACHE_KEY_TYPE_RULES),
+            pm.get(Constant.CACHE_KEY_SKIP_COMMENTS)
+        );
+    }
+
+    private <T> void put(Map<String, Entry<T>> entries, String key, String configHash, Set<VirtualFile> files, T value) {
+        Map<String, String> fileHashes = new HashMap<>();
+        for (VirtualFile file : files) {
+            String hash = this.hashOf(file);
+            // 存在未保存的修改或读取失败，不缓存
+            if (hash == null) return;
+            fileHashes.put(file.getUrl(), hash);
+        }
+        entries.put(key, new Entry<>(configHash, fileHashes, value));
+        dirty.set(true);
+    }
+
+    private boolean isValid(Entry<?> entry, String configHash) {
+        if (!entry.configHash.equals(configHash)) return false;
+        VirtualFileManager vfManager = VirtualFileManager.getInstance();
+        for (Map.Entry<String, String> fileHash : entry.fileHashes.entrySet()) {
+            VirtualFile file = vfManager.findFileByUrl(fileHash.getKey());
+            if (file == null || !fileHash.getValue().equals(this.hashOf(file))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 收集类型及其泛型参数对应的类所在的文件
+     */
+    private void collectTypeFiles(PsiType type, Set<VirtualFile> files) {
+        Set<PsiClass> classSet = new HashSet<>();
+        PojoInfo.collectProjectTypes(type, classSet);
+        classSet.forEach(psiClass -> this.addFile(psiClass, files));
+    }
+
+    /**
+     * 只记录项目源码中的文件
+     */
+    private void addFile(PsiClass psiClass, Set<VirtualFile> files) {
+        VirtualFile file = fileOf(psiClass);
+        if (file != null && ProjectFileIndex.getInstance(project).isInSourceContent(file)) files.add(file);
+    }
+
+    @Nullable
+    private static VirtualFile fileOf(PsiClass psiClass) {
+        PsiFile psiFile = psiClass.getContainingFile();
+        return psiFile == null ? null : psiFile.getVirtualFile();
+    }
+
+    /**
+     * 文件内容的摘要，文件未修改时使用上次计算的结果，存在未保存的修改或读取失败时返回 null
+     */
+    @Nullable
+    private String hashOf(VirtualFile file) {
+        if (!file.isValid() || FileDocumentManager.getInstance().isFileModified(file)) return null;
+        String stamp = file.getTimeStamp() + ":" + file.getLength();
+        Pair<String, String> memo = hashMemo.get(file.getUrl());
+        if (memo != null && memo.getFirst().equals(stamp)) return memo.getSecond();
+        try {
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(file.contentsToByteArray()));
+            hashMemo.put(file.getUrl(), Pair.pair(stamp, hash));
+            return hash;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOG.warn("Failed to hash file: " + file.getPath(), e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String getPluginVersion() {
+        IdeaPluginDescriptor descriptor = PluginManagerCore.getPlugin(PluginId.getId(Constant.PLUGIN_ID));
+        return descriptor == null ? null : descriptor.getVersion();
+    }
+
+    // region 读写
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            if (Files.isRegularFile(storePath)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(storePath))))) {
+                    if (!read(in, getPluginVersion(), classEntries, pojoEntries)) LOG.info("Ignore outdated model store: " + storePath);
+                } catch (Exception e) {
+                    LOG.warn("Ignore invalid model store: " + storePath, e);
+                    classEntries.clear();
+                    pojoEntries.clear();
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * 有更新时写出，文件已被删除的条目不再写出。
+     * 其他线程可能仍在添加条目，从快照写出，保证记录的个数与写出的条目一致
+     */
+    public synchronized void save() {
+        if (!loaded || !dirty.compareAndSet(true, false)) return;
+        removeDeleted(classEntries);
+        removeDeleted(pojoEntries);
+        Map<String, Entry<ClassInfo>> classSnapshot = new HashMap<>(classEntries);
+        Map<String, Entry<Pair<PojoInfo, Set<String>>>> pojoSnapshot = new HashMap<>(pojoEntries);
+        try {
+            Files.createDirectories(storePath.getParent());
+            Path tempPath = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempPath))))) {
+                write(out, getPluginVersion(), classSnapshot, pojoSnapshot);
+            }
+            Files.move(tempPath, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to write model store: " + storePath, e);
+        }
+    }
+
+    private static void removeDeleted(Map<String, ? extends Entry<?>> entries) {
+        VirtualFileManager vfManager = VirtualFileManager.getInstance();
+        entries.values().removeIf(entry -> entry.fileHashes.keySet().stream().anyMatch(url -> vfManager.findFileByUrl(url) == null));
+    }
+
+    /**
+     * 写出文件头和所有条目，条目不能在写出过程中被修改
+     */
+    static void write(DataOutput out, @Nullable String pluginVersion, Map<String, Entry<ClassInfo>> classEntries,
+                      Map<String, Entry<Pair<PojoInfo, Set<String>>>> pojoEntries) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeString(out, pluginVersion);
+        out.writeInt(classEntries.size());
+        for (Map.Entry<String, Entry<ClassInfo>> entry : classEntries.entrySet()) {
+            writeString(out, entry.getKey());
+            writeEntryHeader(out, entry.getValue());
+            writeClassInfo(out, entry.getValue().value);
+        }
+        out.writeInt(pojoEntries.size());
+        for (Map.Entry<String, Entry<Pair<PojoInfo, Set<String>>>> entry : pojoEntries.entrySet()) {
+            writeString(out, entry.getKey());
+            writeEntryHeader(out, entry.getValue());
+            writePojoInfo(out, entry.getValue().value.getFirst());
+            writeStrings(out, entry.getValue().value.getSecond());
+        }
+    }
+
+    /**
+     * 读取所有条目
+     *
+     * @return 文件头与格式版本、插件版本不一致时返回 false，不读取条目
+     */
+    static boolean read(DataInput in, @Nullable String pluginVersion, Map<String, Entry<ClassInfo>> classEntries,
+                        Map<String, Entry<Pair<PojoInfo, Set<String>>>> pojoEntries) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return false;
+        if (!Objects.equals(readString(in), pluginVersion)) return false;
+        int classCnt = in.readInt();
+        for (int i = 0; i < classCnt; i++) {
+            String key = readString(in);
+            String configHash = readString(in);
+            Map<String, String> fileHashes = readStringMap(in);
+            classEntries.put(key, new Entry<>(configHash, fileHashes, readClassInfo(in)));
+        }
+        int pojoCnt = in.readInt();
+        for (int i = 0; i < pojoCnt; i++) {
+            String key = readString(in);
+            String configHash = readString(in);
+            Map<String, String> fileHashes = readStringMap(in);
+            PojoInfo pojoInfo = readPojoInfo(in);
+            pojoEntries.put(key, new Entry<>(configHash, fileHashes, Pair.pair(pojoInfo, Set.copyOf(readStrings(in)))));
+        }
+        return true;
+    }
+
+    private static void writeEntryHeader(DataOutput out, Entry<?> entry) throws IOException {
+        writeString(out, entry.configHash);
+        out.writeInt(entry.fileHashes.size());
+        for (Map.Entry<String, String> fileHash : entry.fileHashes.entrySet()) {
+            writeString(out, fileHash.getKey());
+            writeString(out, fileHash.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    private static void writeClassInfo(DataOutput out, ClassInfo classInfo) throws IOException {
+        writeString(out, classInfo.getName());
+        writeString(out, classInfo.getComment());
+        writeString(out, classInfo.getReqPrefix());
+        writeStrings(out, classInfo.getPojoSet());
+        out.writeInt(classInfo.getMethodList().size());
+        for (MethodInfo methodInfo : classInfo.getMethodList()) {
+            writeMethodInfo(out, methodInfo);
+        }
+    }
+
+    private static ClassInfo readClassInfo(DataInput in) throws IOException {
+        ClassInfo classInfo = new ClassInfo()
+            .setName(readString(in))
+            .setComment(readString(in))
+            .setReqPrefix(readString(in));
+        Set<String> pojoSet = readStrings(in);
+        classInfo.setPojoSet(pojoSet == null ? null : new HashSet<>(pojoSet));
+        int size = in.readInt();
+        List<MethodInfo> methodList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            methodList.add(readMethodInfo(in));
+        }
+        return classInfo.setMethodList(methodList);
+    }
+
+    /**
+     * 分组参数与 allParams 中的对象相同，只记录下标
+     */
+    private static void writeMethodInfo(DataOutput out, MethodInfo methodInfo) throws IOException {
+        writeString(out, methodInfo.getComment());
+        writeString(out, methodInfo.getName());
+        writeString(out, methodInfo.getMethod());
+        writeString(out, methodInfo.getUri());
+        List<ParamInfo> allParams = methodInfo.getAllParams();
+        out.writeInt(allParams.size());
+        for (ParamInfo paramInfo : allParams) {
+            writeParamInfo(out, paramInfo);
+        }
+        for (List<ParamInfo> group : List.of(methodInfo.getPathParams(), methodInfo.getQueryParams(), methodInfo.getPartParams(), methodInfo.getUrlencodedParams())) {
+            out.writeInt(group.size());
+            for (ParamInfo paramInfo : group) {
+                out.writeInt(indexOf(allParams, paramInfo));
+            }
+        }
+        out.writeInt(methodInfo.getBodyParam() == null ? -1 : indexOf(allParams, methodInfo.getBodyParam()));
+        out.writeInt(methodInfo.getParamsCnt());
+        writeString(out, methodInfo.getAllParamsNameStr());
+        writeString(out, methodInfo.getQueryParamsNameStr());
+        writeString(out, methodInfo.getReturnJsType());
+        writeStrings(out, methodInfo.getReturnPojoSet());
+    }
+
+    private static MethodInfo readMethodInfo(DataInput in) throws IOException {
+        MethodInfo methodInfo = new MethodInfo();
+        methodInfo.setComment(readString(in));
+        methodInfo.setName(readString(in));
+        methodInfo.setMethod(readString(in));
+        methodInfo.setUri(readString(in));
+        int size = in.readInt();
+        List<ParamInfo> allParams = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            allParams.add(readParamInfo(in));
+        }
+        methodInfo.setAllParams(allParams);
+        List<List<ParamInfo>> groups = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            int groupSize = in.readInt();
+            List<ParamInfo> group = new ArrayList<>(groupSize);
+            for (int j = 0; j < groupSize; j++) {
+                group.add(allParams.get(in.readInt()));
+            }
+            groups.add(group);
+        }
+        methodInfo.setPathParams(groups.get(0));
+        methodInfo.setQueryParams(groups.get(1));
+        methodInfo.setPartParams(groups.get(2));
+        methodInfo.setUrlencodedParams(groups.get(3));
+        int bodyIndex = in.readInt();
+        methodInfo.setBodyParam(bodyIndex < 0 ? null : allParams.get(bodyIndex));
+        methodInfo.setParamsCnt(in.readInt());
+        methodInfo.setAllParamsNameStr(readString(in));
+        methodInfo.setQueryParamsNameStr(readString(in));
+        methodInfo.setReturnJsType(readString(in));
+        Set<String> returnPojoSet = readStrings(in);
+        methodInfo.setReturnPojoSet(returnPojoSet == null ? null : Set.copyOf(returnPojoSet));
+        return methodInfo;
+    }
+
+    private static void writeParamInfo(DataOutput out, ParamInfo paramInfo) throws IOException {
+        writeString(out, paramInfo.getName());
+        out.writeBoolean(Boolean.TRUE.equals(paramInfo.getIsRequired()));
+        writeString(out, paramInfo.getComment());
+        writeString(out, paramInfo.getAnnoBindType());
+        writeString(out, paramInfo.getJsType());
+        writeStrings(out, paramInfo.getPojoSet());
+        out.writeBoolean(Boolean.TRUE.equals(paramInfo.getIsArray()));
+        out.writeBoolean(Boolean.TRUE.equals(paramInfo.getIsFile()));
+        out.writeBoolean(Boolean.TRUE.equals(paramInfo.getIsPojo()));
+    }
+
+    private static ParamInfo readParamInfo(DataInput in) throws IOException {
+        ParamInfo paramInfo = new ParamInfo();
+        paramInfo.setName(readString(in));
+        paramInfo.setIsRequired(in.readBoolean());
+        paramInfo.setComment(readString(in));
+        paramInfo.setAnnoBindType(readString(in));
+        paramInfo.setJsType(readString(in));
+        Set<String> pojoSet = readStrings(in);
+        paramInfo.setPojoSet(pojoSet == null ? null : Set.copyOf(pojoSet));
+        paramInfo.setIsArray(in.readBoolean());
+        paramInfo.setIsFile(in.readBoolean());
+        paramInfo.setIsPojo(in.readBoolean());
+        return paramInfo;
+    }
+
+    private static void writePojoInfo(DataOutput out, @Nullable PojoInfo pojoInfo) throws IOException {
+        out.writeBoolean(pojoInfo != null);
+        if (pojoInfo == null) return;
+        writeString(out, pojoInfo.getQualifiedName());
+        writeString(out, pojoInfo.getName());
+        writeString(out, pojoInfo.getComment());
+        out.writeInt(pojoInfo.getFieldList().size());
+        for (PojoInfo.FieldVo fieldVo : pojoInfo.getFieldList()) {
+            writeString(out, fieldVo.getName());
+            writeString(out, fieldVo.getComment());
+            writeString(out, fieldVo.getJsType());
+        }
+        writeStrings(out, pojoInfo.getTypeParamList());
+    }
+
+    @Nullable
+    private static PojoInfo readPojoInfo(DataInput in) throws IOException {
+        if (!in.readBoolean()) return null;
+        String qualifiedName = readString(in);
+        String name = readString(in);
+        String comment = readString(in);
+        int size = in.readInt();
+        List<PojoInfo.FieldVo> fieldList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fieldList.add(new PojoInfo.FieldVo(readString(in), readString(in), readString(in)));
+        }
+        List<String> typeParamList = readStringList(in);
+        return new PojoInfo(qualifiedName, name, comment, fieldList, typeParamList == null ? new ArrayList<>() : typeParamList);
+    }
+
+    private static int indexOf(List<ParamInfo> list, ParamInfo paramInfo) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == paramInfo) return i;
+        }
+        throw new IllegalStateException("Param not found: " + paramInfo.getName());
+    }
+
+    /**
+     * 字符串以长度 + UTF-8 字节写出，null 的长度为 -1
+     */
+    private static void writeString(DataOutput out, @Nullable String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutput out, @Nullable Collection<String> strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(strings.size());
+        for (String str : strings) {
+            writeString(out, str);
+        }
+    }
+
+    @Nullable
+    private static Set<String> readStrings(DataInput in) throws IOException {
+        List<String> list = readStringList(in);
+        return list == null ? null : new HashSet<>(list);
+    }
+
+    @Nullable
+    private static List<String> readStringList(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) return null;
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(in));
+        }
+        return list;
+    }
+
+    // endregion 读写
+
+    @Override
+    public void dispose() {
+        this.save();
+    }
+
+}
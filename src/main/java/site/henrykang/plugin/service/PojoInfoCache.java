@@ -0,0 +1,91 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Pair;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 项目级 pojo 解析结果缓存，在多个 Controller、多次生成之间共享，
+ * 批量生成的耗时只与不同 pojo 的个数相关，而不是 Controller 个数 × pojo 个数
+ */
+@Service(Service.Level.PROJECT)
+public final class PojoInfoCache implements Disposable {
+
+    /**
+     * 缓存挂在 project 上，Java 代码、项目依赖或类型规则发生变化时自动失效
+     * key：pojo 全类名
+     * value：A-解析结果，不是 pojo 时为 null，B-属性涉及的 pojo 全类名集合
+     */
+    private static final Key<CachedValue<Map<String, Pair<PojoInfo, Set<String>>>>> POJO_CACHE_KEY = Key.create(Constant.PLUGIN_NAME + ".pojoCache");
+
+    private final Project project;
+
+    public PojoInfoCache(@NotNull Project project) {
+        this.project = project;
+        // 监听跳过注释配置更改，清空缓存。pojo 包路径、类型规则、忽略参数类型由规则的修改计数处理，见 getPojoCache
+        PropertiesManager.getInstance(project).addObserver(Constant.CACHE_KEY_SKIP_COMMENTS, (oldVal, newVal) -> {
+            if (!Objects.equals(oldVal, newVal)) {
+                this.invalidateCache();
+            }
+        });
+    }
+
+    public static PojoInfoCache getInstance(@NotNull Project project) {
+        return project.getService(PojoInfoCache.class);
+    }
+
+    /**
+     * 属性的 js 类型、是否为 pojo 依赖类型规则，规则重新编译后才递增修改计数，不会用旧规则填充新缓存
+     */
+    private Map<String, Pair<PojoInfo, Set<String>>> getPojoCache() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, POJO_CACHE_KEY, () -> CachedValueProvider.Result.create(
+            new ConcurrentHashMap<>(),
+            PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+            ProjectRootManager.getInstance(project),
+            TypeRuleManager.getInstance(project).getModificationTracker()
+        ), false);
+    }
+
+    /**
+     * 获取 pojo 解析结果，不存在时使用 resolver 解析并缓存。
+     * 解析在 map 之外进行，不持有 ConcurrentHashMap 的桶锁，解析期间可以响应取消，也不阻塞其他线程；
+     * 多个线程同时解析同一个 pojo 时结果相同，只保留先写入的
+     */
+    @NotNull
+    public Pair<PojoInfo, Set<String>> get(@NotNull String qualifiedName, @NotNull Function<String, Pair<PojoInfo, Set<String>>> resolver) {
+        Map<String, Pair<PojoInfo, Set<String>>> pojoCache = this.getPojoCache();
+        Pair<PojoInfo, Set<String>> cache = pojoCache.get(qualifiedName);
+        if (cache != null) return cache;
+        Pair<PojoInfo, Set<String>> result = resolver.apply(qualifiedName);
+        Pair<PojoInfo, Set<String>> previous = pojoCache.putIfAbsent(qualifiedName, result);
+        return previous != null ? previous : result;
+    }
+
+    public void invalidateCache() {
+        this.getPojoCache().clear();
+    }
+
+    @Override
+    public void dispose() {
+        // 缓存挂在 project 上，需要移除，否则插件无法动态卸载
+        project.putUserData(POJO_CACHE_KEY, null);
+    }
+
+}
@@ -6,6 +6,8 @@ import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 
 @Service(Service.Level.PROJECT)
@@ -14,7 +16,7 @@ public final class PropertiesManager {
     private final PropertiesComponent props;
 
     /** 在 key 上的监听列表，BiConsumer 传参 oldVal, newVal */
-    private final Map<String, List<BiConsumer<String, String>>> listenersMap = new HashMap<>();
+    private final Map<String, List<BiConsumer<String, String>>> listenersMap = new ConcurrentHashMap<>();
 
     public PropertiesManager(@NotNull Project project) {
         this.props = PropertiesComponent.getInstance(project);
@@ -37,14 +39,11 @@ public final class PropertiesManager {
         return this.props.getValue(key);
     }
 
+    /**
+     * 服务可能在后台线程中并发创建，所以监听列表需要线程安全
+     */
     public void addObserver(String key, BiConsumer<String, String> listener) {
-        if (!this.listenersMap.containsKey(key)) {
-            List<BiConsumer<String, String>> list = new ArrayList<>();
-            list.add(listener);
-            this.listenersMap.put(key, list);
-        } else {
-            this.listenersMap.get(key).add(listener);
-        }
+        this.listenersMap.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(listener);
     }
 
 }
@@ -0,0 +1,129 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.util.TypeRules;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 持有编译后的 {@link TypeRules}，类型规则、忽略参数类型、pojo 包配置变化时重新编译。
+ * 父类型规则需要查询继承关系，结果按 PsiClass 缓存，Java 代码、项目依赖或规则变化时失效。
+ * 其他依赖规则的缓存通过 {@link #getModificationTracker()} 在规则重新编译后失效
+ */
+@Service(Service.Level.PROJECT)
+public final class TypeRuleManager {
+
+    /** 缓存每个 PsiClass 匹配到的父类型规则 target，未匹配时为 "" */
+    private static final Key<CachedValue<String>> SUPERTYPE_RULE_KEY = Key.create(Constant.PLUGIN_NAME + ".supertypeRule");
+
+    private final Project project;
+    /** 规则重新编译后递增，依赖规则的缓存(父类型规则、类型映射、pojo 解析结果)以此失效，不依赖配置监听的注册顺序 */
+    private final SimpleModificationTracker rulesTracker = new SimpleModificationTracker();
+    private volatile TypeRules rules = TypeRules.EMPTY;
+
+    public TypeRuleManager(@NotNull Project project) {
+        this.project = project;
+        this.compile();
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        for (String key : List.of(Constant.CACHE_KEY_TYPE_RULES, Constant.CACHE_KEY_IGNORE_PARAM_TYPES, Constant.CACHE_KEY_POJO_PACKAGES)) {
+            pm.addObserver(key, (oldVal, newVal) -> {
+                if (!Objects.equals(oldVal, newVal)) this.compile();
+            });
+        }
+    }
+
+    public static TypeRuleManager getInstance(@NotNull Project project) {
+        return project.getService(TypeRuleManager.class);
+    }
+
+    private void compile() {
+        PropertiesManager pm = PropertiesManager.getInstance(project);
+        this.rules = TypeRules.compile(
+            pm.get(Constant.CACHE_KEY_TYPE_RULES),
+            pm.get(Constant.CACHE_KEY_IGNORE_PARAM_TYPES),
+            pm.get(Constant.CACHE_KEY_POJO_PACKAGES)
+        );
+        rulesTracker.incModificationCount();
+    }
+
+    /**
+     * 规则的修改计数，作为依赖规则的 {@link CachedValue} 的依赖项
+     */
+    @NotNull
+    public ModificationTracker getModificationTracker() {
+        return rulesTracker;
+    }
+
+    @NotNull
+    public TypeRules getRules() {
+        return rules;
+    }
+
+    /**
+     * 按全类名、父类型匹配规则，需要在读操作中调用
+     *
+     * @return target，没有匹配时返回 null
+     */
+    @Nullable
+    public String classify(@NotNull PsiClass psiClass) {
+        TypeRules current = this.rules;
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null) {
+            String target = current.match(qualifiedName);
+            if (target != null) return target;
+        }
+        if (current.getSupertypeRules().isEmpty()) return null;
+        String target = CachedValuesManager.getCachedValue(psiClass, SUPERTYPE_RULE_KEY, () -> CachedValueProvider.Result.create(
+            matchSupertype(psiClass, this.rules),
+            PsiModificationTracker.getInstance(psiClass.getProject()).forLanguage(JavaLanguage.INSTANCE),
+            ProjectRootManager.getInstance(psiClass.getProject()),
+            rulesTracker
+        ));
+        return target.isEmpty() ? null : target;
+    }
+
+    private static String matchSupertype(PsiClass psiClass, TypeRules rules) {
+        for (Pair<String, String> rule : rules.getSupertypeRules()) {
+            if (InheritanceUtil.isInheritor(psiClass, true, rule.getFirst())) return rule.getSecond();
+        }
+        return "";
+    }
+
+    /**
+     * 参数类型是否需要忽略，需要在读操作中调用
+     */
+    public boolean isIgnored(@NotNull PsiType psiType) {
+        if (psiType instanceof PsiClassType classType) {
+            PsiClass psiClass = classType.resolve();
+            if (psiClass != null) return TypeRules.IGNORE.equals(this.classify(psiClass));
+        }
+        return rules.isIgnored(psiType.getCanonicalText());
+    }
+
+    /**
+     * 是否为需要收集的 pojo
+     */
+    public boolean isPojo(@Nullable String qualifiedName) {
+        return rules.isPojo(qualifiedName);
+    }
+
+}
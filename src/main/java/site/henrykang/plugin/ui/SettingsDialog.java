@@ -32,16 +32,30 @@ import java.util.stream.Collectors;
 public class SettingsDialog extends DialogWrapper {
 
     private final Project project;
+    /** 是否为整个项目生成，此时显示模块输出目录配置 */
+    private final boolean projectMode;
 
     private final JBTextField savePathField = new JBTextField();
     private final JBTextField pojoPackagesField = new JBTextField();
-    private final JBCheckBox clearCacheCheckBox = new JBCheckBox();
     private final JBCheckBox ignoreDeprecatedCheckBox = new JBCheckBox();
+    private final JBCheckBox incrementalCheckBox = new JBCheckBox();
+    private final JBCheckBox typesModuleCheckBox = new JBCheckBox();
+    private final JBCheckBox fastFormatCheckBox = new JBCheckBox();
+    private final JBCheckBox skipCommentsCheckBox = new JBCheckBox();
+    private final JBCheckBox writeReportCheckBox = new JBCheckBox();
+    private final JBCheckBox watchCheckBox = new JBCheckBox();
     private final JBTextArea ignoreParamTypesArea = new JBTextArea();
+    private final JBTextArea typeRulesArea = new JBTextArea();
+    private final JBTextArea moduleSavePathsArea = new JBTextArea();
 
     public SettingsDialog(@Nullable Project project) {
+        this(project, false);
+    }
+
+    public SettingsDialog(@Nullable Project project, boolean projectMode) {
         super(project);
         this.project = project;
+        this.projectMode = projectMode;
         setTitle(Constant.PLUGIN_NAME);
         init();
     }
@@ -51,20 +65,43 @@ public class SettingsDialog extends DialogWrapper {
         int labelWidth = JBUI.scale(150);
         JPanel savePathPanel = initSavePathPanel(labelWidth);
         JPanel pojoPanel = initPojoPackagePanel(labelWidth);
-        JPanel clearCachePanel = initClearCachePanel(labelWidth);
         JPanel ignoreDeprecatedPanel = initIgnoreDeprecatedPanel(labelWidth);
         JPanel ignoreParamTypesPanel = initIgnoreParamTypesPanel(labelWidth);
-
-        JPanel panel = FormBuilder.createFormBuilder()
+        JPanel typeRulesPanel = initTypeRulesPanel(labelWidth);
+        JPanel incrementalPanel = initIncrementalPanel(labelWidth);
+        JPanel typesModulePanel = initTypesModulePanel(labelWidth);
+        JPanel fastFormatPanel = initFastFormatPanel(labelWidth);
+        JPanel skipCommentsPanel = initSkipCommentsPanel(labelWidth);
+        JPanel writeReportPanel = initWriteReportPanel(labelWidth);
+        JPanel watchPanel = initWatchPanel(labelWidth);
+
+        FormBuilder formBuilder = FormBuilder.createFormBuilder()
             .addComponent(savePathPanel)
-            .addVerticalGap(JBUI.scale(8))
+            .addVerticalGap(JBUI.scale(8));
+        if (projectMode) {
+            formBuilder.addComponent(initModuleSavePathsPanel(labelWidth))
+                .addVerticalGap(JBUI.scale(8));
+        }
+        JPanel panel = formBuilder
             .addComponent(pojoPanel)
             .addVerticalGap(JBUI.scale(8))
-            .addComponent(clearCachePanel)
-            .addVerticalGap(JBUI.scale(8))
             .addComponent(ignoreDeprecatedPanel)
             .addVerticalGap(JBUI.scale(8))
             .addComponent(ignoreParamTypesPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(typeRulesPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(incrementalPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(typesModulePanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(fastFormatPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(skipCommentsPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(writeReportPanel)
+            .addVerticalGap(JBUI.scale(8))
+            .addComponent(watchPanel)
             .getPanel();
         panel.setPreferredSize(new Dimension(650, panel.getPreferredSize().height));
         return panel;
@@ -87,14 +124,18 @@ public class SettingsDialog extends DialogWrapper {
             savePathField.setText(value);
         }
 
-        JBLabel label = new JBLabel("Save path");
-        label.setPreferredSize(new Dimension(labelWidth, label.getPreferredSize().height));
+        return labeledRow("Save path", null, savePathBrowse, labelWidth);
+    }
 
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.add(label, BorderLayout.WEST);
-        panel.add(savePathBrowse, BorderLayout.CENTER);
+    private @NotNull JPanel initModuleSavePathsPanel(int labelWidth) {
+        String value = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_MODULE_SAVE_PATHS);
+        moduleSavePathsArea.setRows(4);
+        moduleSavePathsArea.setText(StringUtil.isEmpty(value) ? "" : value);
+        moduleSavePathsArea.getEmptyText().setText("module-name=frontend/src/api/module");
 
-        return panel;
+        return labeledRow("Module save paths",
+            "One module per line in the form module=path, relative paths are resolved against the project directory. Modules not listed are generated into <Save path>/<module>, or skipped if Save path is empty.",
+            scrollable(moduleSavePathsArea), labelWidth);
     }
 
     private @NotNull JPanel initPojoPackagePanel(int labelWidth) {
@@ -114,38 +155,9 @@ public class SettingsDialog extends DialogWrapper {
             pojoPackagesField.setText(value);
         }
 
-        JBLabel label = new JBLabel("POJO package(s)");
-        JLabel helpIcon = new JLabel(AllIcons.General.ContextHelp);
-        helpIcon.setToolTipText("When resolving parameter's type, only classes under these packages and their subpackages will be parsed to generate JSDoc; otherwise, the type is treated as Object.");
-
-        JPanel labelPanel = new JPanel();
-        labelPanel.setLayout(new BoxLayout(labelPanel, BoxLayout.X_AXIS));
-        labelPanel.setOpaque(false);
-        labelPanel.add(label);
-        labelPanel.add(Box.createHorizontalStrut(4));
-        labelPanel.add(helpIcon);
-        labelPanel.setPreferredSize(new Dimension(labelWidth, label.getPreferredSize().height));
-
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.add(labelPanel, BorderLayout.WEST);
-        panel.add(pojoPackageBrowse, BorderLayout.CENTER);
-
-        return panel;
-    }
-
-    private @NotNull JPanel initClearCachePanel(int labelWidth) {
-        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_IS_CLEAR_CACHE);
-        this.clearCacheCheckBox.setSelected(Boolean.parseBoolean(isSelected));
-        this.clearCacheCheckBox.setToolTipText("If checked, the plugin will clear the POJO resolution cache from previous operations");
-
-        JBLabel label = new JBLabel("Clear cache");
-        label.setPreferredSize(new Dimension(labelWidth, label.getPreferredSize().height));
-
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.add(label, BorderLayout.WEST);
-        panel.add(clearCacheCheckBox, BorderLayout.CENTER);
-
-        return panel;
+        return labeledRow("POJO package(s)",
+            "When resolving parameter's type, only classes under these packages and their subpackages will be parsed to generate JSDoc; otherwise, the type is treated as Object.",
+            pojoPackageBrowse, labelWidth);
     }
 
     private @NotNull JPanel initIgnoreDeprecatedPanel(int labelWidth) {
@@ -153,23 +165,9 @@ public class SettingsDialog extends DialogWrapper {
         // 默认选中
         this.ignoreDeprecatedCheckBox.setSelected(isSelected == null || Boolean.parseBoolean(isSelected));
 
-        JBLabel label = new JBLabel("Ignore @Deprecated");
-        JLabel helpIcon = new JLabel(AllIcons.General.ContextHelp);
-        helpIcon.setToolTipText("If checked, the plugin will ignore @Deprecated annotated controller methods");
-
-        JPanel labelPanel = new JPanel();
-        labelPanel.setLayout(new BoxLayout(labelPanel, BoxLayout.X_AXIS));
-        labelPanel.setOpaque(false);
-        labelPanel.add(label);
-        labelPanel.add(Box.createHorizontalStrut(4));
-        labelPanel.add(helpIcon);
-        labelPanel.setPreferredSize(new Dimension(labelWidth, label.getPreferredSize().height));
-
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.add(labelPanel, BorderLayout.WEST);
-        panel.add(ignoreDeprecatedCheckBox, BorderLayout.CENTER);
-
-        return panel;
+        return labeledRow("Ignore @Deprecated",
+            "If checked, the plugin will ignore @Deprecated annotated controller methods",
+            ignoreDeprecatedCheckBox, labelWidth);
     }
 
     private @NotNull JPanel initIgnoreParamTypesPanel(int labelWidth) {
@@ -186,46 +184,165 @@ public class SettingsDialog extends DialogWrapper {
         ignoreParamTypesArea.setRows(4);
         ignoreParamTypesArea.setText(value);
 
-        JBLabel label = new JBLabel("Ignore param types");
-        JLabel helpIcon = new JLabel(AllIcons.General.ContextHelp);
-        helpIcon.setToolTipText("Parameter types to ignore, separated by commas. Supports wildcard * for package names.");
+        return labeledRow("Ignore param types",
+            "Parameter types to ignore, separated by commas. Supports wildcard * for package names.",
+            scrollable(ignoreParamTypesArea), labelWidth);
+    }
+
+    private @NotNull JPanel initTypeRulesPanel(int labelWidth) {
+        String value = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_TYPE_RULES);
+        typeRulesArea.setRows(4);
+        typeRulesArea.setText(StringUtil.isEmpty(value) ? "" : value);
+        typeRulesArea.getEmptyText().setText("java.math.BigDecimal=string");
+
+        return labeledRow("Type rules",
+            "<html>One rule per line in the form pattern=target, lines starting with # are comments.<br/>"
+                + "Pattern: exact type (java.math.BigDecimal), package wildcard (com.example.money.*) or a type and its subtypes (org.springframework.data.domain.Pageable+).<br/>"
+                + "Target: a JS type such as string, or ignore to skip parameters of this type.</html>",
+            scrollable(typeRulesArea), labelWidth);
+    }
+
+    private @NotNull JPanel initIncrementalPanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_INCREMENTAL);
+        // 默认选中
+        this.incrementalCheckBox.setSelected(isSelected == null || Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Skip unchanged",
+            "If checked, only files whose controller or related POJOs changed since the last generation will be regenerated",
+            incrementalCheckBox, labelWidth);
+    }
+
+    private @NotNull JPanel initTypesModulePanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_TYPES_MODULE);
+        // 默认不选中，保持每个文件自包含
+        this.typesModuleCheckBox.setSelected(Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Shared types.js",
+            "If checked, POJO typedefs are generated once into types.js and each api file only references them via import('./types')",
+            typesModuleCheckBox, labelWidth);
+    }
+
+    private @NotNull JPanel initFastFormatPanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_FAST_FORMAT);
+        // 默认不选中，使用 IDE 代码风格格式化
+        this.fastFormatCheckBox.setSelected(Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Fast format",
+            "If checked, generated code is only re-indented by a lightweight built-in formatter instead of the IDE JavaScript code style, recommended for very large batches",
+            fastFormatCheckBox, labelWidth);
+    }
+
+    private @NotNull JPanel initSkipCommentsPanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_SKIP_COMMENTS);
+        // 默认不选中，从 JavaDoc 中提取注释
+        this.skipCommentsCheckBox.setSelected(Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Skip comments",
+            "If checked, JavaDoc comments are not read and comments only come from Swagger annotations, so source files are not parsed beyond their signatures, recommended for very large generated controllers",
+            skipCommentsCheckBox, labelWidth);
+    }
+
+    private @NotNull JPanel initWriteReportPanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_WRITE_REPORT);
+        // 默认不选中，避免在输出目录中产生额外文件
+        this.writeReportCheckBox.setSelected(Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Write report",
+            "If checked, per-stage timings, type cache hit rate and the slowest controllers and POJOs are written to .axioscodegen-report.json in the save path",
+            writeReportCheckBox, labelWidth);
+    }
+
+    private @NotNull JPanel initWatchPanel(int labelWidth) {
+        String isSelected = PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_WATCH);
+        // 默认不选中，需要显式开启
+        this.watchCheckBox.setSelected(Boolean.parseBoolean(isSelected));
+
+        return labeledRow("Watch mode",
+            "If checked, after a java file is saved, the api files that reference the changed controller or POJOs are regenerated in the background into the save path",
+            watchCheckBox, labelWidth);
+    }
+
+    /**
+     * 一行配置：左侧为固定宽度的标签及帮助图标，右侧为输入组件
+     *
+     * @param tooltip 帮助图标的提示文本，为 null 时不显示帮助图标
+     */
+    private static @NotNull JPanel labeledRow(@NotNull String text, @Nullable String tooltip, @NotNull JComponent component, int labelWidth) {
+        JBLabel label = new JBLabel(text);
 
         JPanel labelPanel = new JPanel();
         labelPanel.setLayout(new BoxLayout(labelPanel, BoxLayout.X_AXIS));
         labelPanel.setOpaque(false);
         labelPanel.add(label);
-        labelPanel.add(Box.createHorizontalStrut(4));
-        labelPanel.add(helpIcon);
+        if (tooltip != null) {
+            JLabel helpIcon = new JLabel(AllIcons.General.ContextHelp);
+            helpIcon.setToolTipText(tooltip);
+            labelPanel.add(Box.createHorizontalStrut(4));
+            labelPanel.add(helpIcon);
+        }
         labelPanel.setPreferredSize(new Dimension(labelWidth, label.getPreferredSize().height));
 
-        JBScrollPane scrollPane = new JBScrollPane(ignoreParamTypesArea);
-        scrollPane.setPreferredSize(new Dimension(300, 80));
-
         JPanel panel = new JPanel(new BorderLayout(5, 0));
         panel.add(labelPanel, BorderLayout.WEST);
-        panel.add(scrollPane, BorderLayout.CENTER);
-
+        panel.add(component, BorderLayout.CENTER);
         return panel;
     }
 
+    /**
+     * 多行文本框外包一层固定大小的滚动面板
+     */
+    private static @NotNull JBScrollPane scrollable(@NotNull JBTextArea textArea) {
+        JBScrollPane scrollPane = new JBScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(300, 80));
+        return scrollPane;
+    }
+
     public String getSavePath() {
         return savePathField.getText().trim();
     }
 
-    public String getPojoPackages() {
-        return pojoPackagesField.getText().trim();
+    public String getModuleSavePaths() {
+        return moduleSavePathsArea.getText().trim();
     }
 
-    public Boolean isClearCacheSelected() {
-        return this.clearCacheCheckBox.isSelected();
+    public String getPojoPackages() {
+        return pojoPackagesField.getText().trim();
     }
 
     public Boolean isIgnoreDeprecatedSelected() {
         return this.ignoreDeprecatedCheckBox.isSelected();
     }
 
+    public Boolean isIncrementalSelected() {
+        return this.incrementalCheckBox.isSelected();
+    }
+
+    public Boolean isTypesModuleSelected() {
+        return this.typesModuleCheckBox.isSelected();
+    }
+
+    public Boolean isFastFormatSelected() {
+        return this.fastFormatCheckBox.isSelected();
+    }
+
+    public Boolean isSkipCommentsSelected() {
+        return this.skipCommentsCheckBox.isSelected();
+    }
+
+    public Boolean isWriteReportSelected() {
+        return this.writeReportCheckBox.isSelected();
+    }
+
+    public Boolean isWatchSelected() {
+        return this.watchCheckBox.isSelected();
+    }
+
     public String getIgnoreParamTypes() {
         return ignoreParamTypesArea.getText().trim();
     }
 
+    public String getTypeRules() {
+        return typeRulesArea.getText().trim();
+    }
+
 }
\ No newline at end of file
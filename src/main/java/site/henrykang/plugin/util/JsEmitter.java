@@ -0,0 +1,290 @@
+package site.henrykang.plugin.util;
+
+import org.apache.velocity.context.Context;
+import org.jetbrains.annotations.NotNull;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 插件自带模板的原生实现，输出与 velocity 填充默认的 AxiosCodeGen_all、_method、_doc 模板的结果一致。
+ * 直接从 ClassInfo、MethodInfo、PojoInfo 写入线程内复用的 StringBuilder，不经过 velocity 的解释执行和反射取值。
+ * <p>
+ * 只在模板未被修改时使用，见 {@link TemplateUtil#render(Context, String, Writer)}。
+ * 默认模板中只包含指令、注释的行不产生输出，与 velocity 的 lines 空白处理一致，两者只有缩进可能不同；
+ * 修改默认模板时需要同步修改这里，由 JsEmitterTest 校验。
+ * <p>
+ * 模板引用的字符串为 null 时 velocity 原样输出引用(如 {@code $m.comment})，{@code #if($m.queryParamsNameStr != "")} 为真，
+ * 为 null 的列表在 {@code #if(!$m.urlencodedParams.isEmpty())} 中也为真。这里不模拟这些行为，
+ * 模型中存在这样的 null 时 {@link #emit} 返回 false，交给 velocity 填充，见 {@link #isComplete}
+ */
+public final class JsEmitter {
+
+    /** 缓冲区超过该长度时写出到下游，流式输出时内存占用与文件大小无关 */
+    private static final int FLUSH_THRESHOLD = 16 * 1024;
+    /** 单次输出使缓冲区超过该容量时不再复用，避免长期占用内存 */
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private JsEmitter() {
+    }
+
+    /**
+     * 按模板名称输出，模板名称不支持或缺少需要的变量时返回 false，由调用方使用 velocity 填充
+     */
+    public static boolean emit(@NotNull Context ctx, @NotNull String templateName, @NotNull Writer writer) {
+        Object clazz = ctx.get("clazz");
+        List<PojoInfo> pojoList = getPojoList(ctx);
+        boolean typesModule = Boolean.TRUE.equals(ctx.get("typesModule"));
+        boolean needClass = Constant.FILE_TEMPLATE_NAME.equals(templateName) || Constant.METHOD_TEMPLATE_NAME.equals(templateName);
+        if (needClass && !(clazz instanceof ClassInfo)) return false;
+        if (!isComplete(clazz instanceof ClassInfo classInfo ? classInfo : null, pojoList)) return false;
+
+        Buffer buffer = BUFFER.get();
+        buffer.out = writer;
+        try {
+            switch (templateName) {
+                case Constant.FILE_TEMPLATE_NAME -> emitFile(buffer, (ClassInfo) clazz, pojoList, typesModule);
+                case Constant.METHOD_TEMPLATE_NAME -> {
+                    emitMethods(buffer, (ClassInfo) clazz);
+                    emitPojos(buffer, pojoList);
+                }
+                case Constant.DOC_TEMPLATE_NAME -> emitPojos(buffer, pojoList);
+                default -> {
+                    return false;
+                }
+            }
+            buffer.flush();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.out = null;
+            buffer.sb.setLength(0);
+            if (buffer.sb.capacity() > MAX_RETAINED_CAPACITY) BUFFER.remove();
+        }
+    }
+
+    /**
+     * 模板引用的字段是否都不为 null，布尔值、bodyParam、returnJsType 以及 #foreach 遍历的列表为 null 时两者输出一致，不需要检查
+     */
+    private static boolean isComplete(ClassInfo clazz, List<PojoInfo> pojoList) {
+        if (clazz != null) {
+            if (clazz.getComment() == null || clazz.getReqPrefix() == null) return false;
+            for (MethodInfo m : nullToEmpty(clazz.getMethodList())) {
+                if (m == null || anyNull(m.getComment(), m.getName(), m.getMethod(), m.getUri(), m.getAllParamsNameStr(), m.getQueryParamsNameStr())) return false;
+                if (m.getUrlencodedParams() == null || m.getPartParams() == null) return false;
+                if (m.getBodyParam() != null && m.getBodyParam().getName() == null) return false;
+                for (List<ParamInfo> params : List.of(nullToEmpty(m.getAllParams()), m.getUrlencodedParams(), m.getPartParams())) {
+                    for (ParamInfo p : params) {
+                        if (p == null || anyNull(p.getName(), p.getJsType(), p.getComment())) return false;
+                    }
+                }
+            }
+        }
+        for (PojoInfo po : pojoList) {
+            if (po == null || anyNull(po.getComment(), po.getName())) return false;
+            for (String t : nullToEmpty(po.getTypeParamList())) {
+                if (t == null) return false;
+            }
+            for (PojoInfo.FieldVo field : nullToEmpty(po.getFieldList())) {
+                if (field == null || anyNull(field.getName(), field.getComment(), field.getJsType())) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyNull(String... values) {
+        for (String value : values) {
+            if (value == null) return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PojoInfo> getPojoList(Context ctx) {
+        return ctx.get("pojoList") instanceof List<?> list ? (List<PojoInfo>) list : Collections.emptyList();
+    }
+
+    /**
+     * AxiosCodeGen_all
+     */
+    private static void emitFile(Buffer buffer, ClassInfo clazz, List<PojoInfo> pojoList, boolean typesModule) throws IOException {
+        StringBuilder sb = buffer.sb;
+        sb.append("/**\n * ").append(clazz.getComment()).append("\n */\n")
+            .append("import api from \"@/utils/request.js\";\n\n")
+            .append("const prefix = '/").append(clazz.getReqPrefix()).append("'\n\n");
+        emitMethods(buffer, clazz);
+        sb.append("\n// region pojo def\n\n");
+        if (typesModule) {
+            for (PojoInfo po : pojoList) {
+                List<String> typeParams = nullToEmpty(po.getTypeParamList());
+                if (typeParams.isEmpty()) {
+                    sb.append("/** @typedef {import('./types').").append(po.getName()).append("} ").append(po.getName()).append(" */\n");
+                } else {
+                    sb.append("/**\n");
+                    for (String t : typeParams) {
+                        sb.append(" * @template ").append(t).append('\n');
+                    }
+                    sb.append(" * @typedef {import('./types').").append(po.getName()).append('<').append(String.join(", ", typeParams)).append(">} ")
+                        .append(po.getName()).append("\n */\n");
+                }
+                buffer.flushIfFull();
+            }
+        } else {
+            emitPojos(buffer, pojoList);
+        }
+        sb.append("\n// endregion");
+    }
+
+    /**
+     * AxiosCodeGen_method
+     */
+    private static void emitMethods(Buffer buffer, ClassInfo clazz) throws IOException {
+        for (MethodInfo m : nullToEmpty(clazz.getMethodList())) {
+            emitMethod(buffer.sb, m);
+            buffer.flushIfFull();
+        }
+    }
+
+    private static void emitMethod(StringBuilder sb, MethodInfo m) {
+        // JSDoc
+        sb.append("/**\n * ").append(m.getComment()).append('\n');
+        for (ParamInfo p : nullToEmpty(m.getAllParams())) {
+            sb.append("   * @param {").append(p.getJsType()).append('}');
+            if (isTrue(p.getIsRequired())) {
+                sb.append(' ').append(p.getName()).append(' ');
+            } else {
+                sb.append(" [").append(p.getName()).append(']');
+            }
+            sb.append(' ').append(p.getComment()).append('\n');
+        }
+        if (StringUtil.isNotEmpty(m.getReturnJsType())) {
+            sb.append("   * @returns {Promise<").append(m.getReturnJsType()).append(">}\n");
+        }
+        sb.append(" */\n");
+
+        // 函数签名
+        sb.append("  export function ").append(m.getName()).append('(');
+        if (m.getParamsCnt() > 3) {
+            sb.append(" {").append(m.getAllParamsNameStr()).append("} ");
+        } else {
+            sb.append(' ').append(m.getAllParamsNameStr()).append(' ');
+        }
+        sb.append(") {\n");
+
+        // get delete
+        if ("get".equals(m.getMethod()) || "delete".equals(m.getMethod())) {
+            sb.append("    return api.").append(m.getMethod()).append("(`${prefix}/").append(m.getUri()).append("` ");
+            appendQueryParams(sb, m);
+            sb.append(");\n");
+            sb.append("  }\n");
+            return;
+        }
+
+        // post put patch
+        String postData = "null";
+        String contentType = "";
+        if (!m.getUrlencodedParams().isEmpty()) {
+            postData = "urlencodedData";
+            contentType = "'application/x-www-form-urlencoded'";
+            sb.append("      const urlencodedData = {\n");
+            for (ParamInfo p : m.getUrlencodedParams()) {
+                sb.append("          ").append(isTrue(p.getIsPojo()) ? "..." : "").append(p.getName()).append(",\n");
+            }
+            sb.append("      };\n");
+        } else if (!m.getPartParams().isEmpty()) {
+            postData = "formData";
+            sb.append("      let formData = new FormData();\n");
+            for (ParamInfo p : m.getPartParams()) {
+                String name = p.getName();
+                if (isTrue(p.getIsPojo())) {
+                    sb.append("          formData.append('").append(name).append("', new Blob([JSON.stringify(").append(name).append(")], {type: 'application/json'}))\n");
+                } else if (isTrue(p.getIsArray()) && isTrue(p.getIsFile())) {
+                    sb.append("          for (const f of ").append(name).append(") {\n")
+                        .append("            formData.append('").append(name).append("', f);\n")
+                        .append("          }\n");
+                } else {
+                    sb.append("          formData.append('").append(name).append("', ").append(name).append(");\n");
+                }
+            }
+        } else if (m.getBodyParam() != null) {
+            // 模板中 #if($m.bodyParam) #set(...) #end 所在的行只包含指令，不产生输出
+            postData = m.getBodyParam().getName();
+        }
+        sb.append("    return api.").append(m.getMethod()).append("(`${prefix}/").append(m.getUri()).append("`, ").append(postData).append(' ');
+        appendQueryParams(sb, m);
+        sb.append(", {headers: {'Content-Type': ").append(contentType).append("}});\n");
+        sb.append("  }\n");
+    }
+
+    /**
+     * 模板中 #if 内的文本以空格开头：{@code ` #if(...) , {params: {...}} #end}
+     */
+    private static void appendQueryParams(StringBuilder sb, MethodInfo m) {
+        if (!m.getQueryParamsNameStr().isEmpty()) {
+            sb.append(" , {params: {").append(m.getQueryParamsNameStr()).append("}} ");
+        }
+    }
+
+    /**
+     * AxiosCodeGen_doc
+     */
+    private static void emitPojos(Buffer buffer, List<PojoInfo> pojoList) throws IOException {
+        StringBuilder sb = buffer.sb;
+        for (PojoInfo po : pojoList) {
+            sb.append("/**\n * ").append(po.getComment()).append('\n');
+            for (String t : nullToEmpty(po.getTypeParamList())) {
+                sb.append("   * @template ").append(t).append('\n');
+            }
+            sb.append(" * @typedef ").append(po.getName()).append('\n');
+            for (PojoInfo.FieldVo field : nullToEmpty(po.getFieldList())) {
+                sb.append("   * @property {").append(field.getJsType()).append("} ").append(field.getName()).append(' ').append(field.getComment()).append('\n');
+            }
+            sb.append(" */\n\n");
+            buffer.flushIfFull();
+        }
+    }
+
+    private static boolean isTrue(Boolean bool) {
+        return Boolean.TRUE.equals(bool);
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * 线程内复用的缓冲区
+     */
+    private static final class Buffer {
+
+        private final StringBuilder sb = new StringBuilder(FLUSH_THRESHOLD * 2);
+        private final char[] chars = new char[FLUSH_THRESHOLD];
+        private Writer out;
+
+        private void flushIfFull() throws IOException {
+            if (sb.length() >= FLUSH_THRESHOLD) this.flush();
+        }
+
+        private void flush() throws IOException {
+            for (int start = 0; start < sb.length(); start += chars.length) {
+                int end = Math.min(sb.length(), start + chars.length);
+                sb.getChars(start, end, chars, 0);
+                out.write(chars, 0, end - start);
+            }
+            sb.setLength(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package site.henrykang.plugin.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * 轻量级 js 格式化，不构建 PSI，只根据括号深度重新缩进模板输出：
+ * <pre>
+ * 1. 每行去除首尾空白后，按当前括号深度缩进，以 } ) ] 开头的行先减少一层
+ * 2. 块注释中以 * 开头的行与注释起始行对齐
+ * 3. 合并连续的空行，去除首尾空行
+ * </pre>
+ * 字符串、注释中的括号不计入深度。只适用于模板生成的代码，复杂代码请使用 IDE 格式化。
+ * <p>
+ * 作为 Writer 使用时逐行处理并写出到下游，只缓存当前行，内存占用与输出文件大小无关
+ */
+public class JsFormatter extends Writer {
+
+    private static final String INDENT = "    ";
+
+    private final Writer out;
+    /** 当前未结束的行 */
+    private final StringBuilder lineBuffer = new StringBuilder();
+    private int depth = 0;
+    private boolean inBlockComment = false;
+    private boolean pendingBlank = false;
+    private boolean started = false;
+
+    public JsFormatter(@NotNull Writer out) {
+        this.out = out;
+    }
+
+    @NotNull
+    public static String format(@NotNull String text) {
+        StringWriter sw = new StringWriter(text.length());
+        try (JsFormatter formatter = new JsFormatter(sw)) {
+            formatter.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sw.toString();
+    }
+
+    @Override
+    public void write(char @NotNull [] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            char c = cbuf[i];
+            if (c == '\n') {
+                this.writeLine(lineBuffer.toString());
+                lineBuffer.setLength(0);
+            } else {
+                lineBuffer.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!lineBuffer.isEmpty()) {
+            this.writeLine(lineBuffer.toString());
+            lineBuffer.setLength(0);
+        }
+        out.close();
+    }
+
+    private void writeLine(String rawLine) throws IOException {
+        String line = rawLine.strip();
+        if (line.isEmpty()) {
+            pendingBlank = started;
+            return;
+        }
+        if (pendingBlank) {
+            out.write('\n');
+            pendingBlank = false;
+        }
+        started = true;
+
+        if (inBlockComment) {
+            out.write(INDENT.repeat(depth) + (line.startsWith("*") ? " " : "") + line + "\n");
+            if (line.contains("*/")) inBlockComment = false;
+            return;
+        }
+        if (line.startsWith("/*")) {
+            out.write(INDENT.repeat(depth) + line + "\n");
+            inBlockComment = !line.contains("*/");
+            return;
+        }
+
+        // 以闭括号开头的行先减少一层缩进
+        int leadingClose = 0;
+        while (leadingClose < line.length() && isClose(line.charAt(leadingClose))) leadingClose++;
+        int lineDepth = Math.max(0, depth - leadingClose);
+        out.write(INDENT.repeat(lineDepth) + line + "\n");
+        depth = Math.max(0, depth + depthDelta(line));
+    }
+
+    /**
+     * 计算一行中括号深度的变化，模板生成的字符串不会跨行，所以只在行内跳过字符串
+     */
+    private static int depthDelta(String line) {
+        int delta = 0;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') i++;
+                else if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+                break;
+            } else if (c == '{' || c == '(' || c == '[') {
+                delta++;
+            } else if (isClose(c)) {
+                delta--;
+            }
+        }
+        return delta;
+    }
+
+    private static boolean isClose(char c) {
+        return c == '}' || c == ')' || c == ']';
+    }
+
+}
@@ -1,12 +1,16 @@
 package site.henrykang.plugin.util;
 
 import com.intellij.lang.javascript.JavaScriptFileType;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.impl.LoadTextUtil;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.text.StringUtilRt;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
@@ -16,9 +20,14 @@ import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.psi.javadoc.PsiDocToken;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.service.PropertiesManager;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -67,6 +76,22 @@ public class MyPsiUtil {
             .orElse("");
     }
 
+    /**
+     * 获取 JavaDoc 注释，skipComments 为 true 时返回 null。
+     * 注释不在 stub 中，读取注释会加载整个文件的 AST；stub 中记录了元素是否有注释，没有注释时不会加载
+     */
+    @Nullable
+    public static PsiDocComment getDocComment(@NotNull PsiJavaDocumentedElement element, boolean skipComments) {
+        return skipComments ? null : element.getDocComment();
+    }
+
+    /**
+     * 是否开启了跳过注释的快速提取模式
+     */
+    public static boolean isSkipComments(@NotNull Project project) {
+        return Boolean.parseBoolean(PropertiesManager.getInstance(project).get(Constant.CACHE_KEY_SKIP_COMMENTS));
+    }
+
     /**
      * 从注解中提取指定属性值，如果值为空(null 或 "")，返回默认值
      */
@@ -100,6 +125,25 @@ public class MyPsiUtil {
         return null;
     }
 
+    /**
+     * 从注解中提取显式声明的属性值，不会查找注解方法的默认值，因此无需解析引用，可在索引阶段使用
+     */
+    @NotNull
+    public static String getDeclaredAnnotationValueLiteralStrOrDefault(PsiAnnotation psiAnnotation, String attrName, String defaultValue) {
+        return Optional.ofNullable(psiAnnotation)
+            .map(anno -> anno.findDeclaredAttributeValue(attrName))
+            .map(MyPsiUtil::getAnnotationValueLiteralStrOrDefault)
+            .orElse(defaultValue == null ? "" : defaultValue);
+    }
+
+    /**
+     * 从注解中提取显式声明的属性值，没有则返回 ""
+     */
+    @NotNull
+    public static String getDeclaredAnnotationValueLiteralStr(PsiAnnotation psiAnnotation, String attrName) {
+        return getDeclaredAnnotationValueLiteralStrOrDefault(psiAnnotation, attrName, null);
+    }
+
     /**
      * 从注解中提取指定属性值，没有则返回 ""
      */
@@ -160,10 +204,19 @@ public class MyPsiUtil {
      * 从 @XxxMapping 中提取请求方式和路径，返回 [method, path]
      */
     public static Pair<String, String> getRequestMappingInfo(@NotNull PsiMethod psiMethod) {
+        return getRequestMappingInfo(collectAnnotations(psiMethod, Constant.METHOD_ANNO_MAP));
+    }
+
+    /**
+     * 从已收集的方法注解中提取请求方式和路径，返回 [method, path]
+     *
+     * @param annoMap 全类名 -> 注解，见 {@link #collectAnnotations}
+     */
+    public static Pair<String, String> getRequestMappingInfo(@NotNull Map<String, PsiAnnotation> annoMap) {
         String method = "";
         String path = "";
         // 先查找 RequestMapping
-        PsiAnnotation anno = psiMethod.getAnnotation(Constant.ANNO_REQUEST_MAPPING);
+        PsiAnnotation anno = annoMap.get(Constant.ANNO_REQUEST_MAPPING);
         if (anno != null) {
             method = getAnnotationValueLiteralStr(anno, "method").toLowerCase();
             path = StringUtil.trimSlashes(getAnnotationValueLiteralStr(anno, "value"));
@@ -173,16 +226,9 @@ public class MyPsiUtil {
             List<String> otherMappings = new ArrayList<>(Constant.MAPPING_ANNO_SET);
             otherMappings.remove(Constant.ANNO_REQUEST_MAPPING);
             for (String mapping : otherMappings) {
-                anno = psiMethod.getAnnotation(mapping);
+                anno = annoMap.get(mapping);
                 if (anno != null) {
-                    method = switch (mapping) {
-                        case Constant.ANNO_GET_MAPPING -> "get";
-                        case Constant.ANNO_POST_MAPPING -> "post";
-                        case Constant.ANNO_PUT_MAPPING -> "put";
-                        case Constant.ANNO_DELETE_MAPPING -> "delete";
-                        case Constant.ANNO_PATCH_MAPPING -> "patch";
-                        default -> "";
-                    };
+                    method = getHttpMethod(mapping);
                     path = StringUtil.trimSlashes(getAnnotationValueLiteralStr(anno, "value"));
                     break;
                 }
@@ -191,6 +237,96 @@ public class MyPsiUtil {
         return Pair.pair(method, path);
     }
 
+    /**
+     * 由 @XxxMapping 注解全类名获取请求方式，@RequestMapping 返回 ""
+     */
+    @NotNull
+    public static String getHttpMethod(String mappingQualifiedName) {
+        return switch (mappingQualifiedName) {
+            case Constant.ANNO_GET_MAPPING -> "get";
+            case Constant.ANNO_POST_MAPPING -> "post";
+            case Constant.ANNO_PUT_MAPPING -> "put";
+            case Constant.ANNO_DELETE_MAPPING -> "delete";
+            case Constant.ANNO_PATCH_MAPPING -> "patch";
+            default -> "";
+        };
+    }
+
+    /**
+     * 获取全类名中的短类名
+     */
+    @NotNull
+    public static String getShortName(@NotNull String qualifiedName) {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * 不解析引用，按源码中的写法和文件的 import 判断注解的全类名，可在索引阶段使用：
+     * 全类名写法直接比较；短类名写法需要有对应的单类型导入，或者没有同名的单类型导入时，有注解所在包的按需导入或与注解同包
+     */
+    public static PsiAnnotation findAnnotationByImport(@NotNull PsiModifierListOwner owner, @NotNull String qualifiedName) {
+        PsiModifierList modifierList = owner.getModifierList();
+        if (modifierList == null) return null;
+        String shortName = getShortName(qualifiedName);
+        for (PsiAnnotation anno : modifierList.getAnnotations()) {
+            PsiJavaCodeReferenceElement ref = anno.getNameReferenceElement();
+            if (ref == null || !shortName.equals(ref.getReferenceName())) continue;
+            if (ref.isQualified()) {
+                if (qualifiedName.equals(ref.getText().replaceAll("\\s+", ""))) return anno;
+            } else if (isImported(owner.getContainingFile(), qualifiedName)) {
+                return anno;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 import 语句的文本判断文件中的短类名是否指向该全类名，不解析引用
+     */
+    private static boolean isImported(PsiFile psiFile, String qualifiedName) {
+        if (!(psiFile instanceof PsiJavaFile javaFile)) return false;
+        int lastDot = qualifiedName.lastIndexOf('.');
+        String packageName = lastDot < 0 ? "" : qualifiedName.substring(0, lastDot);
+        String shortName = qualifiedName.substring(lastDot + 1);
+        PsiImportList importList = javaFile.getImportList();
+        boolean onDemand = false;
+        if (importList != null) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String imported = importStatement.getQualifiedName();
+                if (imported == null) continue;
+                if (importStatement.isOnDemand()) {
+                    onDemand |= packageName.equals(imported);
+                } else if (shortName.equals(getShortName(imported))) {
+                    // 单类型导入优先于按需导入和同包的类
+                    return qualifiedName.equals(imported);
+                }
+            }
+        }
+        return onDemand || packageName.equals(javaFile.getPackageName());
+    }
+
+    /**
+     * 一次遍历元素上的注解，收集需要的注解：先按引用的短类名过滤，短类名命中时才解析全类名校验，
+     * 其余注解(如 lombok、参数校验注解)不会被解析
+     *
+     * @param shortNameMap 短类名 -> 全类名，见 {@link Constant#METHOD_ANNO_MAP}
+     * @return 全类名 -> 注解，重复的注解只保留第一个
+     */
+    @NotNull
+    public static Map<String, PsiAnnotation> collectAnnotations(@NotNull PsiModifierListOwner owner, @NotNull Map<String, String> shortNameMap) {
+        PsiModifierList modifierList = owner.getModifierList();
+        if (modifierList == null) return Collections.emptyMap();
+        Map<String, PsiAnnotation> result = null;
+        for (PsiAnnotation anno : modifierList.getAnnotations()) {
+            PsiJavaCodeReferenceElement ref = anno.getNameReferenceElement();
+            String qualifiedName = ref == null ? null : shortNameMap.get(ref.getReferenceName());
+            if (qualifiedName == null || !anno.hasQualifiedName(qualifiedName)) continue;
+            if (result == null) result = new HashMap<>();
+            result.putIfAbsent(qualifiedName, anno);
+        }
+        return result == null ? Collections.emptyMap() : result;
+    }
+
     /**
      * 从 Psi 元素尝试提取包名，未找到时返回 ""
      */
@@ -201,31 +337,126 @@ public class MyPsiUtil {
     }
 
     /**
-     * 写出内容到指定文件
+     * 创建具有指定内容的非物理 js 文件并使用 IDE 代码风格格式化，需要在读操作中调用。
+     * 非物理 PSI 的修改不需要写操作，可以在后台线程中执行
+     */
+    @NotNull
+    public static PsiFile createFormattedJsFile(Project project, String fileName, String content) {
+        PsiFile psiFile = PsiFileFactory.getInstance(project).createFileFromText(fileName, JavaScriptFileType.INSTANCE, content);
+        CodeStyleManager.getInstance(project).reformat(psiFile);
+        return psiFile;
+    }
+
+    /**
+     * 批量将生成的临时文件提交到目标位置，key：目标文件，value：内容已格式化的临时文件(UTF-8 编码，\n 换行)。
+     * <pre>
+     * 1. 已在编辑器中打开的文件逐个在各自的写操作中通过 Document 更新，支持撤销、同步到编辑器，单个文件失败不影响其他文件
+     * 2. 其余文件在写操作之外逐块比较内容，有变化时将临时文件流式写入目标文件，不会将整个文件读入内存。
+     *    已存在的文件使用其原有的编码、BOM 和换行符，内容相同时不会因为编码、换行符不同而重复写出
+     * 3. 最后对写入的文件统一发起一次异步 VFS 刷新
+     * </pre>
      */
-    public static void writeTextToFile(Project project, Path resultFilePath, String content) {
-        WriteCommandAction.runWriteCommandAction(project, () -> {
+    @NotNull
+    public static CommitResult commitFiles(Project project, Map<Path, Path> files) {
+        CommitResult result = new CommitResult(new LinkedHashSet<>(), new LinkedHashSet<>(), new LinkedHashSet<>());
+
+        // 只查找已存在的 VirtualFile，不触发同步刷新
+        FileDocumentManager fdManager = FileDocumentManager.getInstance();
+        Map<Path, VirtualFile> virtualFiles = ReadAction.compute(() -> {
+            Map<Path, VirtualFile> map = new HashMap<>();
+            for (Path path : files.keySet()) {
+                VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByNioFile(path);
+                if (virtualFile != null && virtualFile.isValid()) map.put(path, virtualFile);
+            }
+            return map;
+        });
+        Map<Path, Document> openDocuments = new HashMap<>();
+        ReadAction.run(() -> virtualFiles.forEach((path, virtualFile) -> {
+            Document document = fdManager.getCachedDocument(virtualFile);
+            if (document != null) openDocuments.put(path, document);
+        }));
+
+        openDocuments.forEach((path, document) -> {
+            String text;
             try {
+                // Document 中只允许 \n，保存时由 IDE 转换为文件原有的编码和换行符
+                text = StringUtilRt.convertLineSeparators(Files.readString(files.get(path), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warn("Failed to read file: " + files.get(path), e);
+                result.failed().add(path);
+                return;
+            }
+            if (ReadAction.compute(() -> document.getText().equals(text))) {
+                result.unchanged().add(path);
+                return;
+            }
+            try {
+                WriteCommandAction.runWriteCommandAction(project, () -> {
+                    document.setText(text);
+                    fdManager.saveDocument(document);
+                });
+                result.written().add(path);
+            } catch (ProcessCanceledException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to update document: " + path, e);
+                result.failed().add(path);
+            }
+        });
+
+        List<Path> refreshPaths = new ArrayList<>();
+        files.forEach((path, source) -> {
+            if (openDocuments.containsKey(path)) return;
+            try {
+                adaptToTarget(source, virtualFiles.get(path));
+                if (Files.isRegularFile(path) && Files.mismatch(source, path) == -1) {
+                    result.unchanged().add(path);
+                    return;
+                }
                 // 确保目录存在
-                Files.createDirectories(resultFilePath.getParent());
-                if (!Files.exists(resultFilePath)) Files.createFile(resultFilePath);
-                VirtualFile resultVirtualFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(resultFilePath);
-                assert resultVirtualFile != null;
-                // 创建具有指定内容的 PsiFile, 并格式化
-                PsiFile tempPsiFile = PsiFileFactory.getInstance(project).createFileFromText(resultFilePath.getFileName().toString(), JavaScriptFileType.INSTANCE, content);
-                CodeStyleManager.getInstance(project).reformat(tempPsiFile);
-                // 保存
-                // resultVirtualFile.setBinaryContent(tempPsiFile.getText().getBytes(StandardCharsets.UTF_8));
-                // resultVirtualFile.refresh(false, false);
-                // 使用 Document 可以支持撤销、同步到已打开的文件等特性
-                Document resultDoc = FileDocumentManager.getInstance().getDocument(resultVirtualFile);
-                resultDoc.setText(tempPsiFile.getText());
-                FileDocumentManager.getInstance().saveDocument(resultDoc);
+                Files.createDirectories(path.getParent());
+                // 写入目标文件而不是移动临时文件，已存在的文件保留原有的权限、所有者和 inode(硬链接、监听工具不受影响)，
+                // 新文件使用系统默认权限，而不是临时文件的 0600
+                try (OutputStream out = Files.newOutputStream(path)) {
+                    Files.copy(source, out);
+                }
+                result.written().add(path);
+                refreshPaths.add(path);
             } catch (IOException e) {
-                LOG.error(e);
-                throw new RuntimeException(e);
+                LOG.warn("Failed to write file: " + path, e);
+                result.failed().add(path);
             }
         });
+        if (!refreshPaths.isEmpty()) {
+            LocalFileSystem.getInstance().refreshNioFiles(refreshPaths, true, false, null);
+        }
+        return result;
+    }
+
+    /**
+     * 目标文件已存在且使用非 UTF-8 编码、BOM 或非 \n 换行符时，按目标文件的编码、BOM 和换行符重写临时文件，
+     * 常见的 UTF-8、\n 换行的文件不需要重写
+     */
+    private static void adaptToTarget(Path source, @Nullable VirtualFile target) throws IOException {
+        if (target == null) return;
+        Charset charset = target.getCharset();
+        byte[] bom = target.getBOM();
+        String separator = target.getDetectedLineSeparator();
+        if (separator == null) separator = LoadTextUtil.detectLineSeparator(target, true);
+        if (separator == null) separator = "\n";
+        if (StandardCharsets.UTF_8.equals(charset) && bom == null && "\n".equals(separator)) return;
+
+        String text = StringUtilRt.convertLineSeparators(Files.readString(source, StandardCharsets.UTF_8), separator);
+        try (OutputStream out = Files.newOutputStream(source)) {
+            if (bom != null) out.write(bom);
+            out.write(text.getBytes(charset));
+        }
+    }
+
+    /**
+     * 提交结果：内容有变化而写出的文件、内容未变化而跳过的文件、读取或写出失败的文件
+     */
+    public record CommitResult(Set<Path> written, Set<Path> unchanged, Set<Path> failed) {
     }
 
 }
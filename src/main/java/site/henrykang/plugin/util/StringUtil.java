@@ -2,6 +2,11 @@ package site.henrykang.plugin.util;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 public class StringUtil {
 
     public static String trimSlashes(@NotNull String input) {
@@ -40,4 +45,20 @@ public class StringUtil {
         return !isEmpty(cs);
     }
 
+    /**
+     * 多个值的 SHA-256 摘要(十六进制)，各值以 \u0000 分隔，null 按 "null" 处理
+     */
+    public static String digest(Object... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                md.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
@@ -3,56 +3,223 @@ package site.henrykang.plugin.util;
 import com.intellij.ide.fileTemplates.FileTemplate;
 import com.intellij.ide.fileTemplates.FileTemplateManager;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.util.ClassLoaderUtil;
 import com.intellij.openapi.util.Disposer;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.context.Context;
 import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.resource.loader.StringResourceLoader;
 import org.apache.velocity.runtime.resource.util.StringResourceRepository;
 import org.apache.velocity.util.DuckType;
+import site.henrykang.plugin.entity.ClassInfo;
 import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.PojoInfo;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TemplateUtil implements Disposable {
 
     private static final VelocityEngine VE;
     private static final StringResourceRepository REPO;
+    /**
+     * 共享类型定义模式下替换 pojo 定义区域，只引用 types.js 中的定义，泛型 pojo 同时声明类型参数并传给引用的类型
+     */
+    private static final String TYPES_REF_TEMPLATE = """
+        #foreach($po in $pojoList)
+        #if($po.typeParamList && !$po.typeParamList.isEmpty())
+        /**
+        #foreach($t in $po.typeParamList)
+         * @template $t
+        #end
+         * @typedef {import('./types').${po.name}<#foreach($t in $po.typeParamList)$t#if($foreach.hasNext), #end#end>} $po.name
+         */
+        #else
+        /** @typedef {import('./types').$po.name} $po.name */
+        #end
+        #end
+        """;
+    /** 插件自带的模板文本，key：模板名称 */
+    private static final Map<String, String> BUNDLED_TEXT_CACHE = new ConcurrentHashMap<>();
+    /**
+     * 当前加载的模板。StringResourceLoader 默认不缓存，每次 getTemplate 都会重新解析，所以加载时解析所有模板，
+     * 模板文本变化时整体替换，并发填充时只会使用完整的旧模板或新模板，不会读取到部分更新的模板
+     */
+    private static volatile LoadedTemplates loaded;
+
+    /**
+     * 已解析的模板
+     *
+     * @param digest          模板文本的摘要
+     * @param defaultTemplate 是否与插件自带的模板一致，一致时使用 {@link JsEmitter} 直接输出
+     * @param templates       key：模板名称
+     */
+    private record LoadedTemplates(String digest, boolean defaultTemplate, Map<String, Template> templates) {
+    }
 
     static {
         VE = new VelocityEngine();
         VE.setProperty(RuntimeConstants.RESOURCE_LOADER, "string");
         VE.setProperty("resource.loader.string.class", StringResourceLoader.class.getName());
         VE.setProperty("resource.loader.string.repository.name", Constant.PLUGIN_ID);
-        VE.init();
+        VE.setProperty(RuntimeConstants.UBERSPECT_CLASSNAME, ViewUberspector.class.getName());
+        // velocity 来自 IDE，通过线程上下文类加载器加载插件中的 uberspector
+        ClassLoaderUtil.runWithClassLoader(TemplateUtil.class.getClassLoader(), (Runnable) VE::init);
         REPO = StringResourceLoader.getRepository(Constant.PLUGIN_ID);
         // for auto release
         Disposer.register(Constant.PLUGIN_DISPOSABLE, new TemplateUtil());
     }
 
+    /**
+     * 检查模板是否被修改后填充，模板未修改时直接使用已解析的模板
+     */
     public static String merge(VelocityContext ctx, String templateName) {
         reloadTemplate();
-        Template template = VE.getTemplate(templateName);
+        return render(ctx, templateName);
+    }
+
+    /**
+     * 使用已加载的模板填充，不会重新加载模板，可在多个线程中并发调用
+     */
+    public static String render(VelocityContext ctx, String templateName) {
         StringWriter sw = new StringWriter();
-        template.merge(ctx, sw);
+        render(ctx, templateName, sw);
         return sw.toString();
     }
 
-    private static void reloadTemplate() {
+    /**
+     * 使用已加载的模板填充，结果直接写入 writer，不会在内存中保留完整的填充结果。
+     * 模板未被修改时由 {@link JsEmitter} 直接输出，否则使用 velocity 填充
+     */
+    public static void render(VelocityContext ctx, String templateName, Writer writer) {
+        LoadedTemplates current = getLoaded();
+        if (current.defaultTemplate() && JsEmitter.emit(ctx, templateName, writer)) return;
+        renderVelocity(current, ctx, templateName, writer);
+    }
+
+    /**
+     * 使用 velocity 填充已加载的模板，clazz、pojoList 替换为 {@link TemplateView}，其他变量不变
+     */
+    static void renderVelocity(VelocityContext ctx, String templateName, Writer writer) {
+        renderVelocity(getLoaded(), ctx, templateName, writer);
+    }
+
+    private static void renderVelocity(LoadedTemplates current, VelocityContext ctx, String templateName, Writer writer) {
+        merge(current, toViewContext(ctx), templateName, writer);
+    }
+
+    /**
+     * 使用 velocity 填充已加载的模板，变量不做转换，实体由 {@link ViewUberspector} 交给默认的反射实现取值
+     */
+    static void mergeWithoutViews(Context ctx, String templateName, Writer writer) {
+        merge(getLoaded(), ctx, templateName, writer);
+    }
+
+    private static void merge(LoadedTemplates current, Context ctx, String templateName, Writer writer) {
+        Template template = current.templates().get(templateName);
+        if (template == null) throw new IllegalArgumentException("Unknown template: " + templateName);
+        template.merge(ctx, writer);
+    }
+
+    private static LoadedTemplates getLoaded() {
+        LoadedTemplates current = loaded;
+        if (current == null) throw new IllegalStateException("Templates are not loaded");
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VelocityContext toViewContext(VelocityContext ctx) {
+        // 外层 context 只保存视图，查找不到的变量由内层 context 提供
+        VelocityContext viewCtx = new VelocityContext(ctx);
+        if (ctx.get("clazz") instanceof ClassInfo clazz) viewCtx.put("clazz", TemplateView.of(clazz));
+        if (ctx.get("pojoList") instanceof List<?> pojoList) viewCtx.put("pojoList", TemplateView.ofList((List<PojoInfo>) pojoList, TemplateView::of));
+        return viewCtx;
+    }
+
+    /**
+     * 从 IDE 模板设置中重新加载模板，模板文本未变化时不会重新解析
+     */
+    public static void reloadTemplate() {
         FileTemplateManager ftManager = FileTemplateManager.getDefaultInstance();
 
         FileTemplate t0 = ftManager.getJ2eeTemplate(Constant.FILE_TEMPLATE_NAME);
         FileTemplate t1 = ftManager.getJ2eeTemplate(Constant.METHOD_TEMPLATE_NAME);
         FileTemplate t2 = ftManager.getJ2eeTemplate(Constant.DOC_TEMPLATE_NAME);
+        loadTemplate(t0.getText(), t1.getText(), t2.getText());
+    }
+
+    /**
+     * 加载指定的模板文本，模板文本未变化时不会重新解析。
+     * 加载过程加锁，解析完成后才替换当前模板，填充不需要加锁
+     */
+    public static synchronized void loadTemplate(String fileText, String methodText, String docText) {
+        String digest = StringUtil.digest(fileText, methodText, docText);
+        LoadedTemplates current = loaded;
+        if (current != null && current.digest().equals(digest)) return;
 
         // idea 只支持解析 Includes 中的代码片段，所以此处手动替换
-        String fullTemplateText = t0.getText()
-            .replace("#parse(\"" + Constant.METHOD_TEMPLATE_NAME + "\")", t1.getText())
-            .replace("#parse(\"" + Constant.DOC_TEMPLATE_NAME + "\")", t2.getText());
+        // 开启共享类型定义($typesModule)时，pojo 定义区域改为引用 types.js
+        String fullTemplateText = fileText
+            .replace("#parse(\"" + Constant.METHOD_TEMPLATE_NAME + "\")", methodText)
+            .replace("#parse(\"" + Constant.DOC_TEMPLATE_NAME + "\")", "#if($typesModule)\n" + TYPES_REF_TEMPLATE + "#else\n" + docText + "\n#end");
         REPO.putStringResource(Constant.FILE_TEMPLATE_NAME, fullTemplateText);
-        REPO.putStringResource(Constant.METHOD_TEMPLATE_NAME, t1.getText() + "\n" + t2.getText());
-        REPO.putStringResource(Constant.DOC_TEMPLATE_NAME, t2.getText());
+        REPO.putStringResource(Constant.METHOD_TEMPLATE_NAME, methodText + "\n" + docText);
+        REPO.putStringResource(Constant.DOC_TEMPLATE_NAME, docText);
+        Map<String, Template> templates = Map.of(
+            Constant.FILE_TEMPLATE_NAME, VE.getTemplate(Constant.FILE_TEMPLATE_NAME),
+            Constant.METHOD_TEMPLATE_NAME, VE.getTemplate(Constant.METHOD_TEMPLATE_NAME),
+            Constant.DOC_TEMPLATE_NAME, VE.getTemplate(Constant.DOC_TEMPLATE_NAME)
+        );
+        boolean defaultTemplate = isBundled(Constant.FILE_TEMPLATE_NAME, fileText)
+            && isBundled(Constant.METHOD_TEMPLATE_NAME, methodText)
+            && isBundled(Constant.DOC_TEMPLATE_NAME, docText);
+        loaded = new LoadedTemplates(digest, defaultTemplate, templates);
+    }
+
+    /**
+     * 模板文本是否与插件自带的模板一致，忽略换行符差异和末尾空白
+     */
+    private static boolean isBundled(String templateName, String text) {
+        if (text == null) return false;
+        String bundled = BUNDLED_TEXT_CACHE.computeIfAbsent(templateName, TemplateUtil::readBundledText);
+        return !bundled.isEmpty() && bundled.equals(normalize(text));
+    }
+
+    private static String readBundledText(String templateName) {
+        try (InputStream is = TemplateUtil.class.getResourceAsStream("/fileTemplates/j2ee/" + templateName + ".js.ft")) {
+            if (is == null) return "";
+            return normalize(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.replace("\r\n", "\n").stripTrailing();
+    }
+
+    /**
+     * 当前加载的模板是否为插件自带的模板
+     */
+    public static boolean isDefaultTemplate() {
+        LoadedTemplates current = loaded;
+        return current != null && current.defaultTemplate();
+    }
+
+    /**
+     * 获取最近一次加载的模板文本摘要(SHA-256)，用于判断模板是否被修改
+     */
+    public static String getTemplateDigest() {
+        LoadedTemplates current = loaded;
+        return current == null ? "" : current.digest();
     }
 
     /**
@@ -64,6 +231,7 @@ public class TemplateUtil implements Disposable {
         if (REPO != null) {
             StringResourceLoader.removeRepository(Constant.PLUGIN_ID);
         }
+        loaded = null;
         DuckType.clearCache();
     }
 
@@ -0,0 +1,119 @@
+package site.henrykang.plugin.util;
+
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * velocity 填充时使用的视图模型，将 ClassInfo、MethodInfo、ParamInfo、PojoInfo 展开为 Map，
+ * 由 {@link ViewUberspector} 直接按 key 取值，不经过反射查找 getter。
+ * <p>
+ * 包含实体的所有属性，模板中的引用方式不变，另外预先计算默认模板中通过 #if 判断得到的值：
+ * <pre>
+ * $m.postData      请求体变量名：urlencodedData、formData、请求体参数名，没有请求体时为字符串 "null"，原样输出为 js 的 null
+ * $m.contentType   Content-Type 请求头，urlencoded 时为 'application/x-www-form-urlencoded'，否则为空串
+ * </pre>
+ * 其他属性的值与实体的 getter 返回值相同，包括 null，填充结果与直接使用实体一致，由 TemplateViewTest 校验
+ */
+public final class TemplateView extends HashMap<String, Object> {
+
+    private TemplateView(int expectedSize) {
+        super(expectedSize * 4 / 3 + 1);
+    }
+
+    public static TemplateView of(ClassInfo clazz) {
+        TemplateView view = new TemplateView(5);
+        view.put("name", clazz.getName());
+        view.put("comment", clazz.getComment());
+        view.put("reqPrefix", clazz.getReqPrefix());
+        view.put("methodList", ofList(clazz.getMethodList(), TemplateView::of));
+        view.put("pojoSet", clazz.getPojoSet());
+        return view;
+    }
+
+    public static TemplateView of(MethodInfo m) {
+        TemplateView view = new TemplateView(17);
+        view.put("comment", m.getComment());
+        view.put("name", m.getName());
+        view.put("method", m.getMethod());
+        view.put("uri", m.getUri());
+        view.put("pathParams", ofList(m.getPathParams(), TemplateView::of));
+        view.put("queryParams", ofList(m.getQueryParams(), TemplateView::of));
+        view.put("partParams", ofList(m.getPartParams(), TemplateView::of));
+        view.put("urlencodedParams", ofList(m.getUrlencodedParams(), TemplateView::of));
+        view.put("bodyParam", m.getBodyParam() == null ? null : of(m.getBodyParam()));
+        view.put("allParams", ofList(m.getAllParams(), TemplateView::of));
+        view.put("paramsCnt", m.getParamsCnt());
+        view.put("allParamsNameStr", m.getAllParamsNameStr());
+        view.put("queryParamsNameStr", m.getQueryParamsNameStr());
+        view.put("returnJsType", m.getReturnJsType());
+        view.put("returnPojoSet", m.getReturnPojoSet());
+
+        String postData = "null";
+        String contentType = "";
+        if (m.getUrlencodedParams() != null && !m.getUrlencodedParams().isEmpty()) {
+            postData = "urlencodedData";
+            contentType = "'application/x-www-form-urlencoded'";
+        } else if (m.getPartParams() != null && !m.getPartParams().isEmpty()) {
+            postData = "formData";
+        } else if (m.getBodyParam() != null) {
+            postData = m.getBodyParam().getName();
+        }
+        view.put("postData", postData);
+        view.put("contentType", contentType);
+        return view;
+    }
+
+    public static TemplateView of(ParamInfo p) {
+        TemplateView view = new TemplateView(9);
+        view.put("name", p.getName());
+        view.put("isRequired", p.getIsRequired());
+        view.put("comment", p.getComment());
+        view.put("annoBindType", p.getAnnoBindType());
+        view.put("jsType", p.getJsType());
+        view.put("pojoSet", p.getPojoSet());
+        view.put("isArray", p.getIsArray());
+        view.put("isFile", p.getIsFile());
+        view.put("isPojo", p.getIsPojo());
+        return view;
+    }
+
+    public static TemplateView of(PojoInfo po) {
+        TemplateView view = new TemplateView(5);
+        view.put("qualifiedName", po.getQualifiedName());
+        view.put("name", po.getName());
+        view.put("comment", po.getComment());
+        view.put("fieldList", ofList(po.getFieldList(), TemplateView::of));
+        view.put("typeParamList", po.getTypeParamList());
+        return view;
+    }
+
+    public static TemplateView of(PojoInfo.FieldVo field) {
+        TemplateView view = new TemplateView(3);
+        view.put("name", field.getName());
+        view.put("comment", field.getComment());
+        view.put("jsType", field.getJsType());
+        return view;
+    }
+
+    /**
+     * 转换列表，null 保持为 null，与实体中的值一致
+     */
+    public static <T> List<TemplateView> ofList(List<T> list, Function<T, TemplateView> mapper) {
+        if (list == null) return null;
+        if (list.isEmpty()) return Collections.emptyList();
+        List<TemplateView> result = new ArrayList<>(list.size());
+        for (T item : list) {
+            result.add(item == null ? null : mapper.apply(item));
+        }
+        return result;
+    }
+
+}
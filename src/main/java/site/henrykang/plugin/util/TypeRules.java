@@ -0,0 +1,187 @@
+package site.henrykang.plugin.util;
+
+import com.intellij.openapi.util.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的类型规则表，不依赖 PSI，配置变化时重新编译，之后只读，可被多个线程共享。
+ * 每行一条规则 {@code pattern=target}，# 开头的行为注释：
+ * <pre>
+ * java.math.BigDecimal=string                          精确匹配，哈希查找
+ * com.example.money.*=number                           包名通配符，前缀树中取最长匹配
+ * org.springframework.data.domain.Pageable+=ignore     父类型，其子类型(含自身)均匹配，需要由调用方结合 PSI 判断
+ * </pre>
+ * target 为 js 类型，或 {@link #IGNORE} 表示忽略该类型的方法参数。
+ * 匹配优先级：精确匹配 > 最长前缀匹配 > 父类型(按配置顺序)。
+ * 忽略参数类型列表编译为 target 为 ignore 的规则，pojo 包列表编译为单独的前缀树。
+ * 按全类名匹配的耗时与类名长度成正比，匹配过程不分配内存
+ */
+public final class TypeRules {
+
+    public static final String IGNORE = "ignore";
+
+    public static final TypeRules EMPTY = compile(null, null, null);
+
+    private final Map<String, String> exactMap = new HashMap<>();
+    private final Node prefixRoot = new Node();
+    private final Node pojoRoot = new Node();
+    /** A-父类型全类名，B-target */
+    private final List<Pair<String, String>> supertypeRules = new ArrayList<>();
+
+    private TypeRules() {
+    }
+
+    /**
+     * @param rules        类型规则
+     * @param ignoreTypes  忽略的参数类型，逗号分隔，支持 * 通配符
+     * @param pojoPackages pojo 包名，逗号分隔
+     */
+    @NotNull
+    public static TypeRules compile(@Nullable String rules, @Nullable String ignoreTypes, @Nullable String pojoPackages) {
+        TypeRules result = new TypeRules();
+        // 先添加忽略列表，类型规则中的同名规则覆盖忽略列表
+        for (String pattern : splitItems(ignoreTypes, true)) {
+            result.addRule(pattern, IGNORE);
+        }
+        // target 可能包含逗号，例如 Object<string, number>，规则只按行分隔
+        for (String rule : splitItems(rules, false)) {
+            int index = rule.lastIndexOf('=');
+            if (index <= 0 || index == rule.length() - 1) continue;
+            result.addRule(rule.substring(0, index).trim(), rule.substring(index + 1).trim());
+        }
+        for (String pojoPackage : splitItems(pojoPackages, true)) {
+            result.pojoRoot.insert(pojoPackage, "");
+        }
+        return result;
+    }
+
+    /**
+     * 按行拆分，跳过空行、注释行
+     *
+     * @param splitComma 是否再按逗号拆分
+     */
+    private static List<String> splitItems(String text, boolean splitComma) {
+        List<String> result = new ArrayList<>();
+        if (StringUtil.isBlank(text)) return result;
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            if (!splitComma) {
+                result.add(line);
+                continue;
+            }
+            for (String item : line.split(",")) {
+                if (StringUtil.isNotBlank(item)) result.add(item.trim());
+            }
+        }
+        return result;
+    }
+
+    private void addRule(String pattern, String target) {
+        if (pattern.endsWith("+")) {
+            String superType = pattern.substring(0, pattern.length() - 1);
+            supertypeRules.removeIf(rule -> rule.getFirst().equals(superType));
+            supertypeRules.add(Pair.pair(superType, target));
+            // 自身也按精确匹配处理，不需要查询继承关系
+            exactMap.put(superType, target);
+        } else if (pattern.endsWith("*")) {
+            prefixRoot.insert(pattern.substring(0, pattern.length() - 1), target);
+        } else {
+            exactMap.put(pattern, target);
+        }
+    }
+
+    /**
+     * 按全类名匹配精确规则、通配符规则
+     *
+     * @return target，没有匹配时返回 null
+     */
+    @Nullable
+    public String match(@NotNull String qualifiedName) {
+        String target = exactMap.get(qualifiedName);
+        return target != null ? target : prefixRoot.longestMatch(qualifiedName);
+    }
+
+    /**
+     * 是否为忽略的类型，只匹配全类名，不判断父类型
+     */
+    public boolean isIgnored(@NotNull String qualifiedName) {
+        return IGNORE.equals(this.match(qualifiedName));
+    }
+
+    /**
+     * 是否为需要收集的 pojo：位于 pojo 包下，且不是 JDK 中的类
+     */
+    public boolean isPojo(@Nullable String qualifiedName) {
+        if (StringUtil.isBlank(qualifiedName) || qualifiedName.startsWith("java.")) return false;
+        return pojoRoot.longestMatch(qualifiedName) != null;
+    }
+
+    /**
+     * 父类型规则，按配置顺序
+     */
+    @NotNull
+    public List<Pair<String, String>> getSupertypeRules() {
+        return supertypeRules;
+    }
+
+    /**
+     * 前缀树节点，子节点按字符排序后二分查找，避免装箱
+     */
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        /** 以当前节点结尾的前缀对应的 target */
+        private String target;
+
+        private void insert(String prefix, String target) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.getOrAdd(prefix.charAt(i));
+            }
+            node.target = target;
+        }
+
+        private Node getOrAdd(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) return children[index];
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        /**
+         * 最长前缀匹配
+         */
+        private String longestMatch(String name) {
+            Node node = this;
+            String result = node.target;
+            for (int i = 0; i < name.length(); i++) {
+                int index = Arrays.binarySearch(node.keys, name.charAt(i));
+                if (index < 0) break;
+                node = node.children[index];
+                if (node.target != null) result = node.target;
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package site.henrykang.plugin.util;
 
 import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationAction;
 import com.intellij.notification.NotificationGroupManager;
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.project.Project;
@@ -23,4 +24,15 @@ public class UiUtil {
         AppExecutorUtil.getAppScheduledExecutorService().schedule(notification::expire, expireMillis, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * 右下角带操作按钮的通知信息，点击按钮后关闭，不自动关闭
+     */
+    public static void showNotification(Project project, String message, NotificationType type, String actionText, Runnable action) {
+        NotificationGroupManager.getInstance()
+            .getNotificationGroup(Constant.NOTIFICATION_GROUP)
+            .createNotification(Constant.PLUGIN_NAME, message, type)
+            .addAction(NotificationAction.createSimpleExpiring(actionText, action))
+            .notify(project);
+    }
+
 }
@@ -0,0 +1,90 @@
+package site.henrykang.plugin.util;
+
+import org.apache.velocity.util.introspection.Info;
+import org.apache.velocity.util.introspection.UberspectImpl;
+import org.apache.velocity.util.introspection.VelMethod;
+import org.apache.velocity.util.introspection.VelPropertyGet;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link TemplateView} 的属性直接按 key 从 Map 中取值，不经过反射查找 getter；
+ * 无参的 getXxx() 调用同样映射为取值，兼容模板中以方法形式的引用。实体的 Boolean 属性只有 getIsXxx()，
+ * 没有 isXxx() 方法，所以 isXxx() 不做映射，与实体一样原样输出。
+ * 其他对象仍由 {@link UberspectImpl} 处理
+ */
+public class ViewUberspector extends UberspectImpl {
+
+    @Override
+    public VelPropertyGet getPropertyGet(Object obj, String identifier, Info i) {
+        if (obj instanceof TemplateView) return new ViewPropertyGet(identifier);
+        return super.getPropertyGet(obj, identifier, i);
+    }
+
+    @Override
+    public VelMethod getMethod(Object obj, String methodName, Object[] args, Info i) {
+        if (obj instanceof TemplateView view && (args == null || args.length == 0)) {
+            String key = getterKey(methodName);
+            if (key != null && view.containsKey(key)) return new ViewGetterMethod(methodName, key);
+        }
+        return super.getMethod(obj, methodName, args, i);
+    }
+
+    /**
+     * getName -> name，getIsRequired -> isRequired，其他返回 null
+     */
+    private static String getterKey(String methodName) {
+        if (methodName.length() > 3 && methodName.startsWith("get")) {
+            return Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
+        }
+        return null;
+    }
+
+    private record ViewPropertyGet(String key) implements VelPropertyGet {
+
+        @Override
+        public Object invoke(Object o) {
+            return ((TemplateView) o).get(key);
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+
+        @Override
+        public String getMethodName() {
+            return key;
+        }
+
+    }
+
+    private record ViewGetterMethod(String methodName, String key) implements VelMethod {
+
+        @Override
+        public Object invoke(Object o, Object[] params) {
+            return ((TemplateView) o).get(key);
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public Method getMethod() {
+            return null;
+        }
+
+        @Override
+        public Class<?> getReturnType() {
+            return Object.class;
+        }
+
+    }
+
+}
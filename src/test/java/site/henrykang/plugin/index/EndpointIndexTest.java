@@ -0,0 +1,83 @@
+package site.henrykang.plugin.index;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.List;
+import java.util.Map;
+
+public class EndpointIndexTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private static final String CONTROLLER = """
+        package demo;
+
+        import org.springframework.web.bind.annotation.*;
+        import io.swagger.v3.oas.annotations.parameters.RequestBody;
+
+        @RequestMapping("/user")
+        public class UserController {
+            @GetMapping("/find")
+            public User find(@RequestParam("id") Long id) { return null; }
+
+            @GetMapping("/findByName")
+            public User find(@RequestParam("name") String name) { return null; }
+
+            @PostMapping("/page")
+            public Page<User> page(java.util.Map<String, java.util.List<Long>> query) { return null; }
+
+            @PostMapping("/save")
+            public void save(@RequestBody User user) { }
+
+            @PostMapping("/update")
+            public void update(@org.springframework.web.bind.annotation.RequestBody User user) { }
+        }
+        """;
+
+    public void testEraseTypeArgs() {
+        assertEquals("Long", EndpointRecord.eraseTypeArgs("Long"));
+        assertEquals("Map", EndpointRecord.eraseTypeArgs("Map<String, List<Long>>"));
+        assertEquals("List[]", EndpointRecord.eraseTypeArgs("List<String>[]"));
+    }
+
+    public void testOverloadsHaveDistinctSignatures() {
+        PsiClass psiClass = configureController().getClasses()[0];
+        PsiMethod[] finds = psiClass.findMethodsByName("find", false);
+        assertEquals(2, finds.length);
+        assertEquals("find(Long id)", EndpointRecord.signatureOf(finds[0]));
+        assertEquals("find(String name)", EndpointRecord.signatureOf(finds[1]));
+        assertEquals("page(Map query)", EndpointRecord.signatureOf(psiClass.findMethodsByName("page", false)[0]));
+
+        EndpointRecord byId = EndpointIndex.findRecord(finds[0]);
+        EndpointRecord byName = EndpointIndex.findRecord(finds[1]);
+        assertNotNull(byId);
+        assertNotNull(byName);
+        assertEquals("find", byId.getUri());
+        assertEquals("findByName", byName.getUri());
+        assertEquals("id", byId.getParams().get(0).getName());
+        assertEquals("name", byName.getParams().get(0).getName());
+    }
+
+    public void testAnnotationMatchedByImport() {
+        PsiFile psiFile = configureController();
+        Map<String, List<EndpointRecord>> records = EndpointIndex.getFileRecords(getProject(), psiFile.getVirtualFile());
+        assertNotNull(records);
+        List<EndpointRecord> list = records.get("UserController");
+        assertEquals(5, list.size());
+
+        // 单类型导入的 swagger RequestBody 不是 spring 的参数绑定注解
+        EndpointRecord save = list.stream().filter(r -> r.getName().equals("save")).findFirst().orElseThrow();
+        assertEquals("NoBindType", save.getParams().get(0).getAnnoBindType());
+
+        // 全类名写法直接比较
+        EndpointRecord update = list.stream().filter(r -> r.getName().equals("update")).findFirst().orElseThrow();
+        assertEquals("RequestBody", update.getParams().get(0).getAnnoBindType());
+    }
+
+    private PsiJavaFile configureController() {
+        return (PsiJavaFile) myFixture.configureByText("UserController.java", CONTROLLER);
+    }
+
+}
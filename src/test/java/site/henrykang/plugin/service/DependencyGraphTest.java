@@ -0,0 +1,79 @@
+package site.henrykang.plugin.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyGraphTest {
+
+    private static final Path API_DIR = Path.of("/work/web/src/api");
+    private static final String USER_API = API_DIR.resolve("userApi.js").toString();
+    private static final String ORDER_API = API_DIR.resolve("orderApi.js").toString();
+    private static final String ADMIN_API = Path.of("/work/admin/src/api/roleApi.js").toString();
+
+    private DependencyGraph graph;
+
+    @Before
+    public void setUp() {
+        graph = new DependencyGraph();
+        graph.update(USER_API, "demo.UserController", List.of("demo.UserVO", "demo.AddressVO"), Set.of("demo.BaseVO"));
+        graph.update(ORDER_API, "demo.OrderController", List.of("demo.OrderVO", "demo.UserVO"), Set.of("demo.BaseVO", "demo.Auditable"));
+        graph.update(ADMIN_API, "admin.RoleController", List.of("admin.RoleVO"), Set.of());
+    }
+
+    @Test
+    public void findsOutputsByControllerAndPojo() {
+        assertEquals(Map.of(USER_API, "demo.UserController"), graph.findAffectedOutputs(List.of("demo.UserController")));
+        // 间接引用的 pojo 同样记录在依赖中
+        assertEquals(Map.of(USER_API, "demo.UserController"), graph.findAffectedOutputs(List.of("demo.AddressVO")));
+        assertEquals(Map.of(USER_API, "demo.UserController", ORDER_API, "demo.OrderController"), graph.findAffectedOutputs(List.of("demo.UserVO")));
+        assertTrue(graph.findAffectedOutputs(List.of("demo.Unknown")).isEmpty());
+    }
+
+    @Test
+    public void findsOutputsBySuperType() {
+        assertEquals(Map.of(USER_API, "demo.UserController", ORDER_API, "demo.OrderController"), graph.findAffectedOutputs(List.of("demo.BaseVO")));
+        assertEquals(Map.of(ORDER_API, "demo.OrderController"), graph.findAffectedOutputs(List.of("demo.Auditable")));
+    }
+
+    @Test
+    public void updateReplacesPreviousDependencies() {
+        graph.update(USER_API, "demo.UserController", List.of("demo.UserVO"), Set.of());
+        assertFalse(graph.findAffectedOutputs(List.of("demo.AddressVO")).containsKey(USER_API));
+        assertEquals(Map.of(ORDER_API, "demo.OrderController"), graph.findAffectedOutputs(List.of("demo.BaseVO")));
+    }
+
+    @Test
+    public void removeDropsOutput() {
+        graph.remove(USER_API);
+        assertEquals(Map.of(ORDER_API, "demo.OrderController"), graph.findAffectedOutputs(List.of("demo.UserVO")));
+        assertFalse(graph.getControllers().containsKey(USER_API));
+    }
+
+    @Test
+    public void pojosInDirectoryExcludeSuperTypes() {
+        Map<String, List<String>> pojos = graph.getPojosIn(API_DIR);
+        assertEquals(Set.of(USER_API, ORDER_API), pojos.keySet());
+        assertEquals(List.of("demo.AddressVO", "demo.UserVO"), pojos.get(USER_API));
+        assertTrue(graph.getPojosIn(API_DIR.getParent()).isEmpty());
+    }
+
+    @Test
+    public void stateOfOtherVersionIsDropped() {
+        DependencyGraph.GraphState state = graph.getState();
+        assertEquals(DependencyGraph.VERSION, state.version);
+        state.version = 0;
+        graph.loadState(state);
+        assertTrue(graph.isEmpty());
+        assertTrue(graph.findAffectedOutputs(List.of("demo.UserVO")).isEmpty());
+    }
+
+}
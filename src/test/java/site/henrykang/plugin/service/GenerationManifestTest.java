@@ -0,0 +1,70 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+public class GenerationManifestTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private static final String FILE_NAME = "UserApi.js";
+
+    private Path savePath;
+    private PsiFile status;
+    private PsiFile level;
+    private PsiClass controller;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        savePath = FileUtil.createTempDirectory("api", null, true).toPath();
+        Files.writeString(savePath.resolve(FILE_NAME), "");
+        myFixture.addFileToProject("demo/BaseVO.java", "package demo; public class BaseVO { private Long id; }");
+        myFixture.addFileToProject("demo/UserVO.java", "package demo; public class UserVO extends BaseVO { private Level level; }");
+        status = myFixture.addFileToProject("demo/Status.java", "package demo; public enum Status { ENABLED, DISABLED }");
+        level = myFixture.addFileToProject("demo/Level.java", "package demo; public enum Level { LOW, HIGH }");
+        controller = ((PsiJavaFile) myFixture.addFileToProject("demo/UserController.java", """
+            package demo;
+
+            public class UserController {
+                public java.util.List<UserVO> list(Status status) { return null; }
+            }
+            """)).getClasses()[0];
+    }
+
+    public void testRecordsReferencedProjectTypes() {
+        GenerationManifest.Entry entry = GenerationManifest.createEntry(controller, List.of("demo.UserVO"));
+        assertNotNull(entry);
+        assertEquals(Set.of("demo.UserVO"), entry.getPojoStamps().keySet());
+        assertEquals(Set.of("demo.BaseVO"), entry.getSuperStamps().keySet());
+        // 方法参数、pojo 属性中的枚举，依赖库中的类型不记录
+        assertEquals(Set.of("demo.Status", "demo.Level"), entry.getTypeStamps().keySet());
+    }
+
+    public void testEnumInSignatureChangeRegenerates() throws IOException {
+        assertRegeneratedAfterEdit(status, "package demo; public enum Status { ENABLED, DISABLED, LOCKED }");
+    }
+
+    public void testEnumInPojoFieldChangeRegenerates() throws IOException {
+        assertRegeneratedAfterEdit(level, "package demo; public enum Level { LOW, MIDDLE, HIGH }");
+    }
+
+    private void assertRegeneratedAfterEdit(PsiFile psiFile, String newText) throws IOException {
+        GenerationManifest manifest = new GenerationManifest();
+        manifest.getEntries().put(FILE_NAME, GenerationManifest.createEntry(controller, List.of("demo.UserVO")));
+        assertTrue(manifest.isUpToDate(savePath, FILE_NAME, controller));
+
+        WriteAction.run(() -> VfsUtil.saveText(psiFile.getVirtualFile(), newText));
+        assertFalse(manifest.isUpToDate(savePath, FILE_NAME, controller));
+    }
+
+}
@@ -0,0 +1,165 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.openapi.util.Pair;
+import org.junit.Test;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModelStoreTest {
+
+    private static final String VERSION = "2.0.0";
+
+    @Test
+    public void roundTrip() throws IOException {
+        Map<String, ModelStore.Entry<ClassInfo>> classEntries = new HashMap<>();
+        classEntries.put("demo.UserController", new ModelStore.Entry<>("config", Map.of("file:///src/demo/UserController.java", "a1", "file:///src/demo/UserVO.java", "b2"), userController()));
+        // pojoSet、returnPojoSet 等为 null 的字段保持为 null
+        classEntries.put("demo.EmptyController", new ModelStore.Entry<>("config", Map.of(), new ClassInfo().setName("EmptyController").setComment(null)));
+        Map<String, ModelStore.Entry<Pair<PojoInfo, Set<String>>>> pojoEntries = new HashMap<>();
+        PojoInfo page = new PojoInfo("demo.PageResult", "PageResult", "分页结果",
+            List.of(new PojoInfo.FieldVo("records", "数据", "Array<T>"), new PojoInfo.FieldVo("total", null, "number")), List.of("T"));
+        pojoEntries.put("demo.PageResult", new ModelStore.Entry<>("config", Map.of("file:///src/demo/PageResult.java", "c3"), Pair.pair(page, Set.of("demo.UserVO"))));
+        // 不是 pojo 的类同样缓存
+        pojoEntries.put("demo.UserService", new ModelStore.Entry<>("config", Map.of(), Pair.pair(null, Set.of())));
+
+        Map<String, ModelStore.Entry<ClassInfo>> classResult = new HashMap<>();
+        Map<String, ModelStore.Entry<Pair<PojoInfo, Set<String>>>> pojoResult = new HashMap<>();
+        assertTrue(ModelStore.read(input(write(classEntries, pojoEntries, VERSION)), VERSION, classResult, pojoResult));
+
+        assertEquals(classEntries.keySet(), classResult.keySet());
+        for (String key : classEntries.keySet()) {
+            assertEquals(classEntries.get(key).configHash, classResult.get(key).configHash);
+            assertEquals(classEntries.get(key).fileHashes, classResult.get(key).fileHashes);
+            assertEquals(classEntries.get(key).value, classResult.get(key).value);
+        }
+        assertNull(classResult.get("demo.EmptyController").value.getPojoSet());
+
+        assertEquals(pojoEntries.keySet(), pojoResult.keySet());
+        assertEquals(page, pojoResult.get("demo.PageResult").value.getFirst());
+        assertEquals(Set.of("demo.UserVO"), pojoResult.get("demo.PageResult").value.getSecond());
+        assertEquals(Map.of("file:///src/demo/PageResult.java", "c3"), pojoResult.get("demo.PageResult").fileHashes);
+        assertNull(pojoResult.get("demo.UserService").value.getFirst());
+    }
+
+    @Test
+    public void groupedParamsShareInstancesWithAllParams() throws IOException {
+        Map<String, ModelStore.Entry<ClassInfo>> classResult = new HashMap<>();
+        byte[] bytes = write(Map.of("demo.UserController", new ModelStore.Entry<>("config", Map.of(), userController())), Map.of(), VERSION);
+        ModelStore.read(input(bytes), VERSION, classResult, new HashMap<>());
+
+        MethodInfo save = classResult.get("demo.UserController").value.getMethodList().get(1);
+        assertSame(save.getAllParams().get(1), save.getBodyParam());
+        assertSame(save.getAllParams().get(0), save.getQueryParams().get(0));
+        MethodInfo find = classResult.get("demo.UserController").value.getMethodList().get(0);
+        assertNull(find.getBodyParam());
+        assertSame(find.getAllParams().get(0), find.getPathParams().get(0));
+    }
+
+    @Test
+    public void otherPluginVersionIsIgnored() throws IOException {
+        byte[] bytes = write(Map.of("demo.UserController", new ModelStore.Entry<>("config", Map.of(), userController())), Map.of(), VERSION);
+        Map<String, ModelStore.Entry<ClassInfo>> classResult = new HashMap<>();
+        assertFalse(ModelStore.read(input(bytes), "2.0.1", classResult, new HashMap<>()));
+        assertTrue(classResult.isEmpty());
+        assertFalse(ModelStore.read(input(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}), VERSION, classResult, new HashMap<>()));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedFileFails() throws IOException {
+        byte[] bytes = write(Map.of("demo.UserController", new ModelStore.Entry<>("config", Map.of(), userController())), Map.of(), VERSION);
+        ModelStore.read(input(Arrays.copyOf(bytes, bytes.length - 10)), VERSION, new HashMap<>(), new HashMap<>());
+    }
+
+    private static ClassInfo userController() {
+        ParamInfo id = param("id", "number");
+        id.setAnnoBindType("PathVariable");
+        MethodInfo find = new MethodInfo();
+        find.setComment("查询用户");
+        find.setName("find");
+        find.setMethod("get");
+        find.setUri("find/${id}");
+        find.setAllParams(List.of(id));
+        find.setPathParams(List.of(id));
+        find.setQueryParams(List.of());
+        find.setPartParams(List.of());
+        find.setUrlencodedParams(List.of());
+        find.setParamsCnt(1);
+        find.setAllParamsNameStr("id");
+        find.setQueryParamsNameStr("");
+        find.setReturnJsType("UserVO");
+        find.setReturnPojoSet(Set.of("demo.UserVO"));
+
+        ParamInfo token = param("token", "string");
+        token.setIsRequired(false);
+        ParamInfo user = param("user", "UserVO");
+        user.setAnnoBindType("RequestBody");
+        user.setPojoSet(Set.of("demo.UserVO"));
+        user.setIsPojo(true);
+        MethodInfo save = new MethodInfo();
+        save.setComment(null);
+        save.setName("save");
+        save.setMethod("post");
+        save.setUri("save");
+        save.setAllParams(List.of(token, user));
+        save.setPathParams(List.of());
+        save.setQueryParams(List.of(token));
+        save.setPartParams(List.of());
+        save.setUrlencodedParams(List.of());
+        save.setBodyParam(user);
+        save.setParamsCnt(2);
+        save.setAllParamsNameStr("token, user");
+        save.setQueryParamsNameStr("token");
+        save.setReturnJsType(null);
+        save.setReturnPojoSet(null);
+
+        return new ClassInfo()
+            .setName("UserController")
+            .setComment("用户管理")
+            .setReqPrefix("user")
+            .setMethodList(List.of(find, save))
+            .setPojoSet(Set.of("demo.UserVO"));
+    }
+
+    private static ParamInfo param(String name, String jsType) {
+        ParamInfo paramInfo = new ParamInfo();
+        paramInfo.setName(name);
+        paramInfo.setComment(name + " 注释");
+        paramInfo.setAnnoBindType("NoBindType");
+        paramInfo.setJsType(jsType);
+        return paramInfo;
+    }
+
+    private static byte[] write(Map<String, ModelStore.Entry<ClassInfo>> classEntries,
+                                Map<String, ModelStore.Entry<Pair<PojoInfo, Set<String>>>> pojoEntries, String version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ModelStore.write(out, version, classEntries, pojoEntries);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+}
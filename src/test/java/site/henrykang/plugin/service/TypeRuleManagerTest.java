@@ -0,0 +1,72 @@
+package site.henrykang.plugin.service;
+
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiType;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.util.List;
+import java.util.Set;
+
+public class TypeRuleManagerTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private PropertiesManager pm;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        pm = PropertiesManager.getInstance(getProject());
+        pm.put(Constant.CACHE_KEY_POJO_PACKAGES, "demo");
+        myFixture.addFileToProject("demo/UserVO.java", "package demo; public class UserVO { private Money balance; }");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            // 轻量测试的项目在测试之间复用，恢复配置
+            pm.put(Constant.CACHE_KEY_POJO_PACKAGES, null);
+            pm.put(Constant.CACHE_KEY_TYPE_RULES, null);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testMappingCacheFollowsRecompiledRules() {
+        PsiClass money = ((PsiJavaFile) myFixture.addFileToProject("demo/Money.java", "package demo; public class Money { }")).getClasses()[0];
+        PsiType type = JavaPsiFacade.getElementFactory(getProject()).createType(money);
+        JsDocTypeResolver resolver = JsDocTypeResolver.getInstance(getProject());
+
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, "demo.Money=string");
+        assertEquals("string", resolver.resolve(type).getFirst());
+        // 没有 Java 代码修改，只有规则变化
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, "demo.Money=number");
+        assertEquals("number", resolver.resolve(type).getFirst());
+    }
+
+    public void testPojoCacheFollowsRecompiledRules() {
+        myFixture.addFileToProject("demo/Money.java", "package demo; public class Money { }");
+
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, "demo.Money=string");
+        assertEquals("string", balanceType());
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, "demo.Money=number");
+        assertEquals("number", balanceType());
+    }
+
+    public void testTrackerChangesAfterRulesRecompiled() {
+        TypeRuleManager manager = TypeRuleManager.getInstance(getProject());
+        long count = manager.getModificationTracker().getModificationCount();
+        pm.put(Constant.CACHE_KEY_TYPE_RULES, "demo.Money=string");
+        assertTrue(manager.getModificationTracker().getModificationCount() > count);
+        assertEquals("string", manager.getRules().match("demo.Money"));
+    }
+
+    private String balanceType() {
+        List<PojoInfo> pojoList = PojoInfo.handlePojoInfo(getProject(), Set.of("demo.UserVO"));
+        assertEquals(1, pojoList.size());
+        return pojoList.get(0).getFieldList().get(0).getJsType();
+    }
+
+}
@@ -0,0 +1,238 @@
+package site.henrykang.plugin.util;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.apache.velocity.VelocityContext;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 插件自带模板的 velocity 填充结果(不经过 {@link TemplateView})与 {@link JsEmitter} 的输出一致，
+ * 只有缩进可能不同，比较前去掉每行的缩进
+ */
+public class JsEmitterTest extends BasePlatformTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        TemplateUtil.loadTemplate(readTemplate(Constant.FILE_TEMPLATE_NAME), readTemplate(Constant.METHOD_TEMPLATE_NAME), readTemplate(Constant.DOC_TEMPLATE_NAME));
+        assertTrue(TemplateUtil.isDefaultTemplate());
+    }
+
+    public void testGetAndDelete() {
+        MethodInfo noParams = method("get", "list", "Array<UserVO>");
+        MethodInfo pathAndQuery = method("get", "detail/${id}", "UserVO", param("id", "number", false), param("fields", "string", false));
+        pathAndQuery.setPathParams(List.of(pathAndQuery.getAllParams().get(0)));
+        pathAndQuery.setQueryParams(List.of(pathAndQuery.getAllParams().get(1)));
+        MethodInfo manyParams = method("delete", "batch", null,
+            param("a", "number", false), param("b", "number", false), param("c", "string", false), param("d", "boolean", false));
+        manyParams.setQueryParams(manyParams.getAllParams());
+        manyParams.getAllParams().get(3).setIsRequired(false);
+        assertSameOutput(List.of(noParams, pathAndQuery, manyParams), List.of());
+    }
+
+    public void testJsonBody() {
+        MethodInfo body = method("post", "save", "number", param("token", "string", false), param("user", "UserVO", true));
+        body.setQueryParams(List.of(body.getAllParams().get(0)));
+        body.setBodyParam(body.getAllParams().get(1));
+        body.getAllParams().get(1).setComment("");
+        MethodInfo noBody = method("post", "refresh", null);
+        MethodInfo bodyOnly = method("put", "update", null, param("user", "UserVO", true));
+        bodyOnly.setBodyParam(bodyOnly.getAllParams().get(0));
+        assertSameOutput(List.of(body, noBody, bodyOnly), List.of(pojo("UserVO", List.of())));
+    }
+
+    public void testUrlencoded() {
+        MethodInfo form = method("patch", "form", null, param("user", "UserVO", true), param("remark", "string", false), param("page", "number", false));
+        form.setUrlencodedParams(form.getAllParams().subList(0, 2));
+        form.setQueryParams(List.of(form.getAllParams().get(2)));
+        assertSameOutput(List.of(form), List.of(pojo("UserVO", List.of())));
+    }
+
+    public void testMultipart() {
+        ParamInfo files = param("files", "Array<File>", false);
+        files.setIsArray(true);
+        files.setIsFile(true);
+        ParamInfo tags = param("tags", "Array<string>", false);
+        tags.setIsArray(true);
+        MethodInfo upload = method("post", "upload", "string", files, param("meta", "UserVO", true), param("file", "File", false), tags);
+        upload.setPartParams(upload.getAllParams());
+        assertSameOutput(List.of(upload), List.of(pojo("UserVO", List.of())));
+    }
+
+    public void testPojos() {
+        PojoInfo page = pojo("PageResult", List.of("T"));
+        PojoInfo pair = pojo("Pair", List.of("K", "V"));
+        PojoInfo empty = new PojoInfo("demo.Empty", "Empty", "", List.of(), List.of());
+        MethodInfo pageMethod = method("get", "page", "PageResult<UserVO>");
+        assertSameOutput(List.of(pageMethod), List.of(page, pair, empty, pojo("UserVO", List.of())));
+        assertSameOutput(List.of(), List.of());
+    }
+
+    public void testManyMethodsAndPojos() {
+        List<MethodInfo> methodList = new ArrayList<>();
+        List<PojoInfo> pojoList = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            MethodInfo m = method(i % 2 == 0 ? "get" : "post", "path/" + i, "UserVO" + i, param("id", "number", false), param("body" + i, "UserVO" + i, true));
+            if (i % 2 == 0) {
+                m.setQueryParams(m.getAllParams());
+            } else {
+                m.setBodyParam(m.getAllParams().get(1));
+            }
+            methodList.add(m);
+            pojoList.add(pojo("UserVO" + i, i % 3 == 0 ? List.of("T") : List.of()));
+        }
+        // 超过缓冲区阈值，分多次写出
+        assertSameOutput(methodList, pojoList);
+    }
+
+    public void testToleratedNulls() {
+        MethodInfo noParams = method("get", "list", "");
+        noParams.setAllParams(null);
+        MethodInfo body = method("post", "save", null, param("user", "UserVO", true), param("remark", "string", false));
+        body.getAllParams().get(0).setIsPojo(null);
+        body.getAllParams().get(1).setIsRequired(null);
+        body.setBodyParam(null);
+        PojoInfo raw = new PojoInfo("demo.Raw", "Raw", "", null, null);
+        assertSameOutput(List.of(noParams, body), List.of(raw));
+    }
+
+    public void testNullFieldsFallBackToVelocity() {
+        MethodInfo noComment = method("get", "list", null);
+        noComment.setComment(null);
+        assertFallback(classOf(List.of(noComment)), List.of(), "$m.comment");
+
+        MethodInfo noQueryNames = method("get", "find", null, param("id", "number", false));
+        noQueryNames.setQueryParamsNameStr(null);
+        // null != "" 为真，输出查询参数
+        assertFallback(classOf(List.of(noQueryNames)), List.of(), "{params: {$m.queryParamsNameStr}}");
+
+        MethodInfo noParamComment = method("delete", "remove", null, param("id", "number", false));
+        noParamComment.getAllParams().get(0).setComment(null);
+        assertFallback(classOf(List.of(noParamComment)), List.of(), "$p.comment");
+
+        MethodInfo noUrlencoded = method("post", "submit", null);
+        noUrlencoded.setUrlencodedParams(null);
+        // null 的列表在 !$list.isEmpty() 中为真
+        assertFallback(classOf(List.of(noUrlencoded)), List.of(), "const urlencodedData = {");
+
+        PojoInfo noFieldComment = pojo("UserVO", List.of());
+        noFieldComment.getFieldList().get(1).setComment(null);
+        assertFallback(classOf(List.of()), List.of(noFieldComment), "$field.comment");
+
+        assertFallback(classOf(List.of()).setComment(null), List.of(), "$clazz.comment");
+    }
+
+    /**
+     * 模型中存在模板引用的 null 字段时 JsEmitter 不输出，由 velocity 填充，视图与实体的填充结果一致
+     */
+    private static void assertFallback(ClassInfo clazz, List<PojoInfo> pojoList, String expectedText) {
+        String fileOutput = null;
+        for (boolean typesModule : new boolean[]{false, true}) {
+            VelocityContext ctx = context(clazz, pojoList, typesModule);
+            for (String templateName : List.of(Constant.FILE_TEMPLATE_NAME, Constant.METHOD_TEMPLATE_NAME, Constant.DOC_TEMPLATE_NAME)) {
+                assertFalse(JsEmitter.emit(ctx, templateName, new StringWriter()));
+                StringWriter velocity = new StringWriter();
+                TemplateUtil.mergeWithoutViews(ctx, templateName, velocity);
+                String rendered = TemplateUtil.render(ctx, templateName);
+                assertEquals(templateName + ", typesModule=" + typesModule, velocity.toString(), rendered);
+                if (!typesModule && Constant.FILE_TEMPLATE_NAME.equals(templateName)) fileOutput = rendered;
+            }
+        }
+        assertTrue(fileOutput, fileOutput.contains(expectedText));
+    }
+
+    private static void assertSameOutput(List<MethodInfo> methodList, List<PojoInfo> pojoList) {
+        for (MethodInfo m : methodList) {
+            m.setQueryParamsNameStr(m.getQueryParams().stream().map(ParamInfo::getName).collect(Collectors.joining(", ")));
+        }
+        ClassInfo clazz = classOf(methodList);
+        for (boolean typesModule : new boolean[]{false, true}) {
+            VelocityContext ctx = context(clazz, pojoList, typesModule);
+            for (String templateName : List.of(Constant.FILE_TEMPLATE_NAME, Constant.METHOD_TEMPLATE_NAME, Constant.DOC_TEMPLATE_NAME)) {
+                StringWriter velocity = new StringWriter();
+                TemplateUtil.mergeWithoutViews(ctx, templateName, velocity);
+                StringWriter emitter = new StringWriter();
+                assertTrue(JsEmitter.emit(ctx, templateName, emitter));
+                assertEquals(templateName + ", typesModule=" + typesModule, stripIndent(velocity.toString()), stripIndent(emitter.toString()));
+            }
+        }
+    }
+
+    private static ClassInfo classOf(List<MethodInfo> methodList) {
+        return new ClassInfo().setName("UserController").setComment("用户管理").setReqPrefix("api/user").setMethodList(methodList);
+    }
+
+    private static VelocityContext context(ClassInfo clazz, List<PojoInfo> pojoList, boolean typesModule) {
+        VelocityContext ctx = new VelocityContext();
+        ctx.put("clazz", clazz);
+        ctx.put("pojoList", pojoList);
+        ctx.put("typesModule", typesModule);
+        return ctx;
+    }
+
+    /**
+     * 只去掉每行的缩进，行内空白、空行保持不变
+     */
+    private static String stripIndent(String text) {
+        return text.lines().map(String::stripLeading).collect(Collectors.joining("\n", "", text.endsWith("\n") ? "\n" : ""));
+    }
+
+    private static MethodInfo method(String httpMethod, String uri, String returnJsType, ParamInfo... params) {
+        MethodInfo methodInfo = new MethodInfo();
+        methodInfo.setName(uri.replaceAll("\\W", "_"));
+        methodInfo.setComment("方法 " + uri);
+        methodInfo.setMethod(httpMethod);
+        methodInfo.setUri(uri);
+        methodInfo.setReturnJsType(returnJsType);
+        methodInfo.setAllParams(new ArrayList<>(List.of(params)));
+        methodInfo.setPathParams(Collections.emptyList());
+        methodInfo.setQueryParams(Collections.emptyList());
+        methodInfo.setPartParams(Collections.emptyList());
+        methodInfo.setUrlencodedParams(Collections.emptyList());
+        methodInfo.setParamsCnt(params.length);
+        methodInfo.setAllParamsNameStr(methodInfo.getAllParams().stream().map(ParamInfo::getName).collect(Collectors.joining(", ")));
+        methodInfo.setQueryParamsNameStr("");
+        return methodInfo;
+    }
+
+    private static ParamInfo param(String name, String jsType, boolean isPojo) {
+        ParamInfo paramInfo = new ParamInfo();
+        paramInfo.setName(name);
+        paramInfo.setComment("参数 " + name);
+        paramInfo.setJsType(jsType);
+        paramInfo.setPojoSet(isPojo ? Set.of("demo." + jsType) : Set.of());
+        paramInfo.setIsPojo(isPojo);
+        return paramInfo;
+    }
+
+    private static PojoInfo pojo(String name, List<String> typeParamList) {
+        List<PojoInfo.FieldVo> fieldList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            fieldList.add(new PojoInfo.FieldVo("field" + i, i == 0 ? "" : "属性 " + i, i == 2 && !typeParamList.isEmpty() ? "Array<" + typeParamList.get(0) + ">" : "string"));
+        }
+        return new PojoInfo("demo." + name, name, "实体 " + name, fieldList, typeParamList);
+    }
+
+    private static String readTemplate(String name) {
+        try (InputStream in = JsEmitterTest.class.getResourceAsStream("/fileTemplates/j2ee/" + name + ".js.ft")) {
+            return new String(Objects.requireNonNull(in, name).readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
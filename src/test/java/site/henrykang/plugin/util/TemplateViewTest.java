@@ -0,0 +1,178 @@
+package site.henrykang.plugin.util;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.apache.velocity.VelocityContext;
+import site.henrykang.plugin.entity.ClassInfo;
+import site.henrykang.plugin.entity.Constant;
+import site.henrykang.plugin.entity.MethodInfo;
+import site.henrykang.plugin.entity.ParamInfo;
+import site.henrykang.plugin.entity.PojoInfo;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 自定义模板以 {@link TemplateView} 填充与直接以实体填充的结果一致，
+ * 模板引用实体的所有属性，同时以属性和 getXxx()、isXxx() 方法的形式引用
+ */
+public class TemplateViewTest extends BasePlatformTestCase {
+
+    private static final String FILE_TEXT = """
+        clazz: $clazz.name $clazz.getName() | $clazz.comment $clazz.getComment() | $clazz.reqPrefix $clazz.getReqPrefix()
+        clazz pojoSet: $clazz.pojoSet $clazz.getPojoSet() | methods: $clazz.methodList.size() $clazz.getMethodList().size()
+        #parse("AxiosCodeGen_method")
+        #parse("AxiosCodeGen_doc")
+        """;
+
+    private static final String METHOD_TEXT = """
+        #foreach($m in $clazz.methodList)
+        method: $m.name $m.getName() | $m.comment $m.getComment() | $m.method $m.getMethod() | $m.uri $m.getUri()
+        count: $m.paramsCnt $m.getParamsCnt() | names: $m.allParamsNameStr $m.getAllParamsNameStr() | query: $m.queryParamsNameStr $m.getQueryParamsNameStr()
+        returns: $m.returnJsType $m.getReturnJsType() | $m.returnPojoSet $m.getReturnPojoSet()
+        body: #if($m.bodyParam)$m.bodyParam.name $m.getBodyParam().getName()#else none#end
+        path: #foreach($p in $m.pathParams)$p.name #end| $m.getPathParams().size()
+        query: #foreach($p in $m.queryParams)$p.name #end| $m.getQueryParams().size()
+        part: #foreach($p in $m.partParams)$p.name #end| $m.getPartParams().size()
+        urlencoded: #foreach($p in $m.urlencodedParams)$p.name #end| $m.getUrlencodedParams().size() #if($m.urlencodedParams.isEmpty())empty#end
+        #foreach($p in $m.allParams)
+        param: $p.name $p.getName() | $p.comment $p.getComment() | $p.annoBindType $p.getAnnoBindType() | $p.jsType $p.getJsType() | $p.pojoSet $p.getPojoSet()
+        flags: $p.isRequired $p.getIsRequired() $p.isRequired() | $p.isArray $p.getIsArray() $p.isArray() | $p.isFile $p.getIsFile() $p.isFile() | $p.isPojo $p.getIsPojo() $p.isPojo()
+        #if($p.isRequired) required#else optional#end#if($p.isPojo) pojo#end#if($p.isArray && $p.isFile) files#end
+
+        #end
+        #end
+        """;
+
+    private static final String DOC_TEXT = """
+        #foreach($po in $pojoList)
+        pojo: $po.qualifiedName $po.getQualifiedName() | $po.name $po.getName() | $po.comment $po.getComment()
+        types: $po.typeParamList $po.getTypeParamList() | fields: $po.fieldList.size() $po.getFieldList().size()
+        #foreach($field in $po.fieldList)
+        field: $field.name $field.getName() | $field.comment $field.getComment() | $field.jsType $field.getJsType()
+        #end
+        #end
+        """;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        TemplateUtil.loadTemplate(FILE_TEXT, METHOD_TEXT, DOC_TEXT);
+        assertFalse(TemplateUtil.isDefaultTemplate());
+    }
+
+    public void testViewsRenderLikeBeans() {
+        String output = assertSameOutput(userController(), List.of(
+            new PojoInfo("demo.PageResult", "PageResult", "分页结果",
+                List.of(new PojoInfo.FieldVo("records", "数据", "Array<T>"), new PojoInfo.FieldVo("total", null, "number")), List.of("T")),
+            new PojoInfo("demo.UserVO", "UserVO", "用户", List.of(new PojoInfo.FieldVo("name", "", "string")), List.of())
+        ));
+        // 引用均已解析，不是原样输出
+        assertTrue(output, output.contains("clazz: UserController UserController | 用户管理 用户管理"));
+        assertTrue(output, output.contains("method: save save | 保存 保存 | post post | save save"));
+        assertTrue(output, output.contains("flags: true true $p.isRequired() | false false $p.isArray() | false false $p.isFile() | true true $p.isPojo()"));
+        assertTrue(output, output.contains("field: total total | $field.comment $field.getComment() | number number"));
+    }
+
+    public void testNullValuesRenderLikeBeans() {
+        ParamInfo raw = param("raw", "Object");
+        raw.setComment(null);
+        raw.setIsRequired(null);
+        raw.setIsPojo(null);
+        raw.setIsArray(null);
+        MethodInfo method = new MethodInfo();
+        method.setName("raw");
+        method.setAllParams(new ArrayList<>(List.of(raw)));
+        ClassInfo clazz = new ClassInfo().setName("RawController").setComment(null).setReqPrefix(null).setMethodList(List.of(method));
+        String output = assertSameOutput(clazz, Collections.singletonList(new PojoInfo("demo.Raw", "Raw", null, null, null)));
+        assertTrue(output, output.contains("flags: $p.isRequired $p.getIsRequired()"));
+    }
+
+    /**
+     * 三个模板、是否共享类型定义的所有组合下，视图与实体的填充结果一致，返回文件模板的填充结果
+     */
+    private static String assertSameOutput(ClassInfo clazz, List<PojoInfo> pojoList) {
+        String fileOutput = null;
+        for (boolean typesModule : new boolean[]{false, true}) {
+            VelocityContext ctx = new VelocityContext();
+            ctx.put("clazz", clazz);
+            ctx.put("pojoList", pojoList);
+            ctx.put("typesModule", typesModule);
+            for (String templateName : List.of(Constant.FILE_TEMPLATE_NAME, Constant.METHOD_TEMPLATE_NAME, Constant.DOC_TEMPLATE_NAME)) {
+                StringWriter views = new StringWriter();
+                TemplateUtil.renderVelocity(ctx, templateName, views);
+                StringWriter beans = new StringWriter();
+                TemplateUtil.mergeWithoutViews(ctx, templateName, beans);
+                assertEquals(templateName + ", typesModule=" + typesModule, beans.toString(), views.toString());
+                if (!typesModule && Constant.FILE_TEMPLATE_NAME.equals(templateName)) fileOutput = views.toString();
+            }
+        }
+        return fileOutput;
+    }
+
+    private static ClassInfo userController() {
+        ParamInfo id = param("id", "number");
+        id.setAnnoBindType("PathVariable");
+        MethodInfo find = new MethodInfo();
+        find.setComment("查询");
+        find.setName("find");
+        find.setMethod("get");
+        find.setUri("find/${id}");
+        find.setAllParams(List.of(id));
+        find.setPathParams(List.of(id));
+        find.setQueryParams(List.of());
+        find.setPartParams(List.of());
+        find.setUrlencodedParams(List.of());
+        find.setParamsCnt(1);
+        find.setAllParamsNameStr("id");
+        find.setQueryParamsNameStr("");
+        find.setReturnJsType("UserVO");
+        find.setReturnPojoSet(Set.of("demo.UserVO"));
+
+        ParamInfo token = param("token", "string");
+        token.setIsRequired(false);
+        ParamInfo user = param("user", "UserVO");
+        user.setAnnoBindType("RequestBody");
+        user.setPojoSet(Set.of("demo.UserVO"));
+        user.setIsPojo(true);
+        ParamInfo files = param("files", "Array<File>");
+        files.setIsArray(true);
+        files.setIsFile(true);
+        MethodInfo save = new MethodInfo();
+        save.setComment("保存");
+        save.setName("save");
+        save.setMethod("post");
+        save.setUri("save");
+        save.setAllParams(List.of(token, user, files));
+        save.setPathParams(List.of());
+        save.setQueryParams(List.of(token));
+        save.setPartParams(List.of(files));
+        save.setUrlencodedParams(List.of());
+        save.setBodyParam(user);
+        save.setParamsCnt(3);
+        save.setAllParamsNameStr("token, user, files");
+        save.setQueryParamsNameStr("token");
+        save.setReturnJsType(null);
+        save.setReturnPojoSet(null);
+
+        return new ClassInfo()
+            .setName("UserController")
+            .setComment("用户管理")
+            .setReqPrefix("api/user")
+            .setMethodList(List.of(find, save))
+            .setPojoSet(Set.of("demo.UserVO"));
+    }
+
+    private static ParamInfo param(String name, String jsType) {
+        ParamInfo paramInfo = new ParamInfo();
+        paramInfo.setName(name);
+        paramInfo.setComment("参数 " + name);
+        paramInfo.setAnnoBindType("RequestParam");
+        paramInfo.setJsType(jsType);
+        paramInfo.setPojoSet(Set.of());
+        return paramInfo;
+    }
+
+}
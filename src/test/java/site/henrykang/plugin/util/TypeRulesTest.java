@@ -0,0 +1,116 @@
+package site.henrykang.plugin.util;
+
+import com.intellij.openapi.util.Pair;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TypeRulesTest {
+
+    @Test
+    public void exactRuleWinsOverWildcard() {
+        TypeRules rules = TypeRules.compile("""
+            com.example.money.*=number
+            com.example.money.Amount=string
+            """, null, null);
+        assertEquals("string", rules.match("com.example.money.Amount"));
+        assertEquals("number", rules.match("com.example.money.Price"));
+        assertNull(rules.match("com.example.Price"));
+    }
+
+    @Test
+    public void longestWildcardWins() {
+        TypeRules rules = TypeRules.compile("""
+            com.example.*=Object
+            com.example.money.*=number
+            *=any
+            """, null, null);
+        assertEquals("number", rules.match("com.example.money.Price"));
+        assertEquals("Object", rules.match("com.example.user.User"));
+        assertEquals("any", rules.match("org.other.Type"));
+    }
+
+    @Test
+    public void targetMayContainCommaAndEquals() {
+        TypeRules rules = TypeRules.compile("""
+            java.util.Properties=Object<string, string>
+            com.example.Flag=a=b
+            """, null, null);
+        assertEquals("Object<string, string>", rules.match("java.util.Properties"));
+        // 按最后一个 = 拆分
+        assertEquals("b", rules.match("com.example.Flag=a"));
+    }
+
+    @Test
+    public void skipsCommentsBlankAndMalformedLines() {
+        TypeRules rules = TypeRules.compile("""
+            # 注释
+              # 缩进的注释
+
+            java.math.BigDecimal = string
+            =number
+            com.example.Missing=
+            no-separator
+            """, null, null);
+        assertEquals("string", rules.match("java.math.BigDecimal"));
+        assertNull(rules.match("com.example.Missing"));
+        assertNull(rules.match("no-separator"));
+        assertNull(rules.match(""));
+    }
+
+    @Test
+    public void supertypeRuleKeepsConfigOrderAndMatchesItself() {
+        TypeRules rules = TypeRules.compile("""
+            org.springframework.data.domain.Pageable+=ignore
+            java.time.temporal.Temporal+=string
+            org.springframework.data.domain.Pageable+=Object
+            """, null, null);
+        // 同一父类型的规则以后配置的为准，位置移到最后
+        assertEquals(List.of(
+            Pair.pair("java.time.temporal.Temporal", "string"),
+            Pair.pair("org.springframework.data.domain.Pageable", "Object")
+        ), rules.getSupertypeRules());
+        assertEquals("Object", rules.match("org.springframework.data.domain.Pageable"));
+        // 子类型需要调用方结合 PSI 判断
+        assertNull(rules.match("org.springframework.data.domain.PageRequest"));
+    }
+
+    @Test
+    public void ignoreTypesAreOverriddenByRules() {
+        TypeRules rules = TypeRules.compile(
+            "com.example.Token=string",
+            "javax.servlet.*, com.example.Token\n# 注释\njakarta.servlet.http.HttpServletRequest",
+            null);
+        assertTrue(rules.isIgnored("javax.servlet.http.HttpServletResponse"));
+        assertTrue(rules.isIgnored("jakarta.servlet.http.HttpServletRequest"));
+        assertFalse(rules.isIgnored("jakarta.servlet.http.HttpSession"));
+        assertFalse(rules.isIgnored("com.example.Token"));
+        assertEquals("string", rules.match("com.example.Token"));
+    }
+
+    @Test
+    public void pojoPackages() {
+        TypeRules rules = TypeRules.compile(null, null, "com.example.dto, com.example.vo\norg.demo");
+        assertTrue(rules.isPojo("com.example.dto.UserDTO"));
+        assertTrue(rules.isPojo("com.example.vo.page.PageVO"));
+        assertTrue(rules.isPojo("org.demo.Order"));
+        assertFalse(rules.isPojo("com.example.service.UserService"));
+        assertFalse(rules.isPojo("java.lang.String"));
+        assertFalse(rules.isPojo(null));
+        assertFalse(rules.isPojo(""));
+    }
+
+    @Test
+    public void emptyRulesMatchNothing() {
+        assertNull(TypeRules.EMPTY.match("java.lang.String"));
+        assertFalse(TypeRules.EMPTY.isIgnored("java.lang.String"));
+        assertFalse(TypeRules.EMPTY.isPojo("com.example.dto.UserDTO"));
+        assertTrue(TypeRules.EMPTY.getSupertypeRules().isEmpty());
+    }
+
+}